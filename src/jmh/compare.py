@@ -0,0 +1,93 @@
+#!/usr/bin/env python3
+"""Compare a JMH JSON result against a stored baseline and flag regressions.
+
+    python3 src/jmh/compare.py                        # target/jmh-result.json vs src/jmh/baseline.json
+    python3 src/jmh/compare.py current.json --baseline old.json --threshold 5
+    python3 src/jmh/compare.py --update               # store the current result as the new baseline
+
+A benchmark regresses when it got worse by more than --threshold percent and by more than the two
+results' combined error margins, so noise inside the confidence intervals is not reported. For
+time-per-operation modes worse means higher, for throughput it means lower. Exits 1 on any regression.
+Record the baseline on the same machine and JDK the comparison will run on.
+"""
+
+import argparse
+import json
+import math
+import shutil
+import sys
+
+LOWER_IS_BETTER = {"avgt", "sample", "ss"}
+
+
+def load(path):
+    with open(path) as f:
+        results = json.load(f)
+    by_key = {}
+    for result in results:
+        params = ",".join(f"{k}={v}" for k, v in sorted((result.get("params") or {}).items()))
+        key = ".".join(result["benchmark"].split(".")[-2:])
+        if params:
+            key += f" [{params}]"
+        by_key[(key, result["mode"])] = result["primaryMetric"]
+    return by_key
+
+
+def error(metric):
+    value = metric.get("scoreError")
+    return 0.0 if value is None or isinstance(value, str) or math.isnan(value) else value
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("current", nargs="?", default="target/jmh-result.json")
+    parser.add_argument("--baseline", default="src/jmh/baseline.json")
+    parser.add_argument("--threshold", type=float, default=10.0, help="allowed slowdown in percent (default 10)")
+    parser.add_argument("--update", action="store_true", help="replace the baseline with the current result")
+    args = parser.parse_args()
+
+    if args.update:
+        shutil.copyfile(args.current, args.baseline)
+        print(f"baseline updated from {args.current}")
+        return 0
+
+    try:
+        baseline = load(args.baseline)
+    except FileNotFoundError:
+        print(f"no baseline at {args.baseline}; store one with --update", file=sys.stderr)
+        return 2
+    current = load(args.current)
+
+    regressions = 0
+    print(f"{'benchmark':<70} {'mode':<6} {'baseline':>14} {'current':>14} {'change':>9}")
+    for (key, mode), metric in sorted(current.items()):
+        base = baseline.get((key, mode))
+        unit = metric["scoreUnit"]
+        if base is None:
+            print(f"{key:<70} {mode:<6} {'-':>14} {metric['score']:>14.3f} {'new':>9}  {unit}")
+            continue
+        if base["scoreUnit"] != unit:
+            print(f"{key:<70} {mode:<6} unit changed from {base['scoreUnit']} to {unit}, not compared")
+            continue
+        change = (metric["score"] - base["score"]) / base["score"] * 100 if base["score"] else 0.0
+        worse = change if mode in LOWER_IS_BETTER else -change
+        beyond_noise = abs(metric["score"] - base["score"]) > error(metric) + error(base)
+        flag = ""
+        if worse > args.threshold and beyond_noise:
+            flag = "  REGRESSION"
+            regressions += 1
+        elif worse < -args.threshold and beyond_noise:
+            flag = "  improved"
+        print(f"{key:<70} {mode:<6} {base['score']:>14.3f} {metric['score']:>14.3f} {change:>+8.1f}%  {unit}{flag}")
+    for key, mode in sorted(baseline.keys() - current.keys()):
+        print(f"{key:<70} {mode:<6} missing from the current run")
+
+    if regressions:
+        print(f"\n{regressions} benchmark(s) regressed by more than {args.threshold:g}%")
+        return 1
+    print(f"\nno regressions beyond {args.threshold:g}%")
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
@@ -0,0 +1,44 @@
+package com.bucott.taskmanager.benchmark;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+
+import com.bucott.taskmanager.model.Authority;
+import com.bucott.taskmanager.model.Role;
+import com.bucott.taskmanager.model.User;
+
+// User.getAuthorities on a user with every role, as Spring Security calls it on each DB-backed authentication
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthoritiesBenchmark {
+    private User user;
+
+    @Setup
+    public void setUp() {
+        user = new User("alice", "alice@example.com", "{noop}secret");
+        for (Authority authority : Authority.values()) {
+            user.getRoles().add(new Role(authority));
+        }
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return user.getAuthorities();
+    }
+}
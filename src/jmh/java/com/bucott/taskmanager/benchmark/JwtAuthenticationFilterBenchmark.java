@@ -0,0 +1,97 @@
+package com.bucott.taskmanager.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.bucott.taskmanager.config.TokenRevocationProperties;
+import com.bucott.taskmanager.security.JwtAuthenticationFilter;
+import com.bucott.taskmanager.security.TokenRevocationStore;
+import com.bucott.taskmanager.service.UserDetailsServiceImpl;
+import com.bucott.taskmanager.util.JwtUtil;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+// One pass of the JWT filter for a bearer request on the stateless path: cached verification, the
+// revocation lookup and building the principal from claims. The database-backed services are never
+// reached on this path, so they are left out.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+    private static final FilterChain END_OF_CHAIN = (request, response) -> { };
+
+    @Param({ "HS256", "ES256" })
+    public String algorithm;
+
+    // other tokens revoked in the same expiry bucket, so lookups get past the bucket and into the filter
+    @Param({ "0", "100000" })
+    public int revokedTokens;
+
+    private Path keyDirectory;
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() throws IOException {
+        keyDirectory = Files.createTempDirectory("jmh-keys");
+        JwtUtil jwtUtil = JwtBenchmark.jwtUtil(algorithm, true, keyDirectory);
+        TokenRevocationStore revocationStore = new TokenRevocationStore(
+                new TokenRevocationProperties("", Duration.ofHours(1), 65536, Duration.ofMinutes(1)),
+                new SimpleMeterRegistry());
+        Instant expiresAt = Instant.now().plus(Duration.ofMinutes(15));
+        for (int i = 0; i < revokedTokens; i++) {
+            revocationStore.revoke(UUID.randomUUID().toString(), expiresAt);
+        }
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl(null, jwtUtil, null, null, null, null,
+                revocationStore, null);
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, revocationStore, true, Duration.ofMinutes(15));
+
+        request = new MockHttpServletRequest("GET", "/api/v1/tasks");
+        request.addHeader("Authorization", "Bearer " + JwtBenchmark.issue(jwtUtil));
+        response = new MockHttpServletResponse();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        JwtBenchmark.deleteKeys(keyDirectory);
+    }
+
+    @Benchmark
+    public Authentication doFilter() throws IOException, ServletException {
+        filter.doFilter(request, response, END_OF_CHAIN);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        if (authentication == null) {
+            throw new IllegalStateException("request was not authenticated");
+        }
+        return authentication;
+    }
+}
@@ -0,0 +1,94 @@
+package com.bucott.taskmanager.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bucott.taskmanager.util.JwtKeyRing;
+import com.bucott.taskmanager.util.JwtUtil;
+import com.bucott.taskmanager.util.VerifiedTokenCache;
+
+// Token issue and the three read paths, per signing algorithm, with and without the verified-token cache
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+    static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hs256";
+
+    @Param({ "HS256", "ES256" })
+    public String algorithm;
+
+    @Param({ "true", "false" })
+    public boolean verificationCache;
+
+    private Path keyDirectory;
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() throws IOException {
+        keyDirectory = Files.createTempDirectory("jmh-keys");
+        jwtUtil = jwtUtil(algorithm, verificationCache, keyDirectory);
+        token = issue(jwtUtil);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        deleteKeys(keyDirectory);
+    }
+
+    static JwtUtil jwtUtil(String algorithm, boolean verificationCache, Path keyDirectory) {
+        JwtKeyRing keyRing = "ES256".equals(algorithm)
+                ? JwtKeyRing.ecDirectory(keyDirectory, Duration.ZERO)
+                : JwtKeyRing.hmac(SECRET);
+        return new JwtUtil(keyRing, new VerifiedTokenCache(verificationCache, 10_000), Duration.ofMinutes(15));
+    }
+
+    static void deleteKeys(Path keyDirectory) throws IOException {
+        try (Stream<Path> files = Files.list(keyDirectory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(keyDirectory);
+    }
+
+    static String issue(JwtUtil jwtUtil) {
+        return jwtUtil.generateToken(7L, "alice", "alice@example.com", List.of("ROLE_USER"), 0);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return issue(jwtUtil);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token, "alice");
+    }
+}
@@ -0,0 +1,17 @@
+package com.bucott.taskmanager.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// Server-Sent Events change feed: per-connection buffering, replay log and keep-alive settings
+@ConfigurationProperties("events")
+public record EventStreamProperties(
+        @DefaultValue("256") int bufferSize,
+        @DefaultValue("10000") int logSize,
+        @DefaultValue("15s") Duration heartbeatInterval,
+        @DefaultValue("5") int maxConnectionsPerUser,
+        @DefaultValue("1m") Duration sessionExpiryWarning,
+        @DefaultValue("30m") Duration connectionTimeout) {
+}
@@ -3,6 +3,7 @@ package com.bucott.taskmanager.config;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -12,6 +13,10 @@ import org.springframework.web.context.request.WebRequest;
 
 import com.bucott.taskmanager.exception.AuthException;
 import com.bucott.taskmanager.exception.InvalidInputException;
+import com.bucott.taskmanager.exception.PreconditionFailedException;
+import com.bucott.taskmanager.exception.PreconditionRequiredException;
+import com.bucott.taskmanager.exception.TaskNotFoundException;
+import com.bucott.taskmanager.exception.TooManyRequestsException;
 import com.bucott.taskmanager.exception.UsernameOrEmailNotFoundException;
 
 @ControllerAdvice
@@ -23,6 +28,11 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex, "User not found", HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(TaskNotFoundException.class)
+    public ResponseEntity<Object> handleTaskNotFoundException(TaskNotFoundException ex, WebRequest request) {
+        return buildErrorResponse(ex, "Task not found", HttpStatus.NOT_FOUND);
+    }
+
     @ExceptionHandler(InvalidInputException.class)
     public ResponseEntity<Object> handleInvalidInputException(InvalidInputException ex, WebRequest request) {
         return buildErrorResponse(ex, "Invalid Input", HttpStatus.BAD_REQUEST);
@@ -33,6 +43,27 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex, "Authentication Error", HttpStatus.UNAUTHORIZED);
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Object> handleTooManyRequestsException(TooManyRequestsException ex, WebRequest request) {
+        ResponseEntity<Object> response = buildErrorResponse(ex, "Too Many Requests", HttpStatus.TOO_MANY_REQUESTS);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response.getBody());
+    }
+
+    // the body is the current task rather than an error, so the client can merge and retry straight away
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Object> handlePreconditionFailedException(PreconditionFailedException ex, WebRequest request) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .eTag(String.valueOf(ex.getCurrent().getVersion()))
+                .body(ex.getCurrent());
+    }
+
+    @ExceptionHandler(PreconditionRequiredException.class)
+    public ResponseEntity<Object> handlePreconditionRequiredException(PreconditionRequiredException ex, WebRequest request) {
+        return buildErrorResponse(ex, "Precondition Required", HttpStatus.PRECONDITION_REQUIRED);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleGlobalException(Exception ex, WebRequest request) {
         return buildErrorResponse(ex, "Internal Server Error", HttpStatus.INTERNAL_SERVER_ERROR);
@@ -0,0 +1,28 @@
+package com.bucott.taskmanager.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.bucott.taskmanager.util.JwtKeyRing;
+
+import io.github.cdimascio.dotenv.Dotenv;
+
+@Configuration
+public class JwtConfig {
+
+    // ES256 key pairs from the key directory; HS256 still reads the shared JWT_SECRET_KEY from .env
+    @Bean
+    public JwtKeyRing jwtKeyRing(@Value("${jwt.signing.algorithm:ES256}") String algorithm,
+            @Value("${jwt.signing.key-directory:data/jwt-keys}") String keyDirectory,
+            @Value("${jwt.signing.publish-delay:10m}") Duration publishDelay) {
+        return switch (algorithm) {
+            case "ES256" -> JwtKeyRing.ecDirectory(Path.of(keyDirectory), publishDelay);
+            case "HS256" -> JwtKeyRing.hmac(Dotenv.load().get("JWT_SECRET_KEY"));
+            default -> throw new IllegalStateException("Unsupported jwt.signing.algorithm " + algorithm + ", use ES256 or HS256");
+        };
+    }
+}
@@ -1,14 +1,66 @@
 package com.bucott.taskmanager.config;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import com.bucott.taskmanager.security.BoundedPasswordEncoder;
+import com.bucott.taskmanager.security.PasswordHashCalibrator;
+import com.bucott.taskmanager.security.Pbkdf2CostPasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 public class PasswordConfig {
+    public static final String BCRYPT = "bcrypt";
+    public static final String PBKDF2 = "pbkdf2";
+    private static final int MIN_BCRYPT_STRENGTH = 10;
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+    private static final int MIN_PBKDF2_ITERATIONS = 100_000;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${password-hashing.algorithm:bcrypt}") String algorithm,
+            @Value("${password-hashing.bcrypt.strength:10}") int bcryptStrength,
+            @Value("${password-hashing.pbkdf2.iterations:310000}") int pbkdf2Iterations,
+            @Value("${password-hashing.pbkdf2.legacy-iterations:${password-hashing.pbkdf2.iterations:310000}}") int pbkdf2LegacyIterations,
+            @Value("${password-hashing.calibration.enabled:false}") boolean calibrate,
+            @Value("${password-hashing.calibration.target:250ms}") Duration calibrationTarget,
+            @Value("${password-hashing.threads:0}") int threads,
+            @Value("${password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${password-hashing.retry-after:1s}") Duration retryAfter,
+            MeterRegistry meterRegistry) {
+        if (calibrate) {
+            if (BCRYPT.equals(algorithm)) {
+                bcryptStrength = PasswordHashCalibrator.calibrateBcryptStrength(
+                        calibrationTarget, MIN_BCRYPT_STRENGTH, MAX_BCRYPT_STRENGTH);
+            } else if (PBKDF2.equals(algorithm)) {
+                pbkdf2Iterations = PasswordHashCalibrator.calibratePbkdf2Iterations(
+                        calibrationTarget, MIN_PBKDF2_ITERATIONS);
+            }
+        }
+
+        // new hashes are written as {id}hash; stored hashes on another id or a lower cost report upgradeEncoding()
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        encoders.put(BCRYPT, bcrypt);
+        // PBKDF2 hashes record their iteration count, so the configured or calibrated count can change freely
+        encoders.put(PBKDF2, new Pbkdf2CostPasswordEncoder(pbkdf2Iterations, pbkdf2LegacyIterations));
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalArgumentException("Unsupported password hashing algorithm: " + algorithm);
+        }
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        // hashes stored before the {id} prefix was introduced are plain BCrypt
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(delegating, workers, queueCapacity, retryAfter, meterRegistry);
     }
 }
@@ -0,0 +1,32 @@
+package com.bucott.taskmanager.config;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+// Per-endpoint token bucket limits, keyed by a logical endpoint name (e.g. login, register)
+@ConfigurationProperties("rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10m") Duration idleTimeout,
+        @DefaultValue("100000") long maxKeys,
+        @DefaultValue("16KB") DataSize maxInspectedBody,
+        Map<String, Endpoint> endpoints) {
+
+    public RateLimitProperties {
+        endpoints = endpoints != null ? Map.copyOf(endpoints) : Map.of();
+    }
+
+    public record Endpoint(
+            String path,
+            Limit perClient,
+            Limit perAccount,
+            @DefaultValue("usernameOrEmail") String accountField) {
+    }
+
+    public record Limit(long capacity, Duration period) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.bucott.taskmanager.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.bucott.taskmanager.service.LoggingReminderNotifier;
+
+@Configuration
+public class ReminderConfig {
+    private static final int RECENT_REMINDERS = 1000;
+
+    // every ReminderNotifier bean receives each reminder; declare another to deliver them elsewhere
+    @Bean
+    public LoggingReminderNotifier loggingReminderNotifier() {
+        return new LoggingReminderNotifier(RECENT_REMINDERS);
+    }
+}
@@ -0,0 +1,19 @@
+package com.bucott.taskmanager.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// Due-date reminders: wheel resolution, how far ahead reminders are held in memory, and restart catch-up
+@ConfigurationProperties("reminders")
+public record ReminderProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1s") Duration tick,
+        @DefaultValue("0s") Duration leadTime,
+        @DefaultValue("1h") Duration loadWindow,
+        @DefaultValue("100000") int maxPending,
+        @DefaultValue("1000") int loadBatchSize,
+        @DefaultValue("24h") Duration catchUpWindow,
+        @DefaultValue("10s") Duration checkpointInterval) {
+}
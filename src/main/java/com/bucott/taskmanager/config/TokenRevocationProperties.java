@@ -0,0 +1,16 @@
+package com.bucott.taskmanager.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// Revoked token ids: where they survive restarts, how finely they are grouped by expiry, and the initial
+// Bloom filter size per group
+@ConfigurationProperties("token-revocation")
+public record TokenRevocationProperties(
+        @DefaultValue("data/revoked-tokens.log") String file,
+        @DefaultValue("1h") Duration bucketWidth,
+        @DefaultValue("65536") int bloomBits,
+        @DefaultValue("1m") Duration sweepInterval) {
+}
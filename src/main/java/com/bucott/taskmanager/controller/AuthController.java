@@ -5,6 +5,8 @@ import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -14,8 +16,10 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.bucott.taskmanager.dto.auth.LoginRequestDTO;
 import com.bucott.taskmanager.dto.auth.LoginResponseDTO;
+import com.bucott.taskmanager.dto.auth.RefreshRequestDTO;
 import com.bucott.taskmanager.dto.auth.RegisterRequestDTO;
 import com.bucott.taskmanager.dto.auth.RegisterResponseDTO;
+import com.bucott.taskmanager.exception.TooManyRequestsException;
 import com.bucott.taskmanager.service.UserDetailsServiceImpl;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -55,7 +59,8 @@ public class AuthController {
                 )
             ),
             @ApiResponse(responseCode = "401", description = "Invalid credentials"),
-            @ApiResponse(responseCode = "400", description = "Bad request")
+            @ApiResponse(responseCode = "400", description = "Bad request"),
+            @ApiResponse(responseCode = "429", description = "Too many concurrent authentication requests")
         }
     )
     @PostMapping("/login")
@@ -65,8 +70,11 @@ public class AuthController {
         try {
             var loginResponse = userDetailsService.authenticate(loginRequestDTO, response);
             return ResponseEntity.ok(loginResponse);
+        } catch(TooManyRequestsException e) {
+            return tooManyRequests(e);
         } catch(Exception e) {
-            Map<String, Object> errorResponse = Map.of("error", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
             errorResponse.put("message", "Login failed: " + e.getMessage());
             errorResponse.put("success", false);
             return ResponseEntity.badRequest().body(errorResponse);
@@ -86,7 +94,8 @@ public class AuthController {
                     schema = @Schema(implementation = RegisterResponseDTO.class)
                 )
             ),
-            @ApiResponse(responseCode = "400", description = "Bad request")
+            @ApiResponse(responseCode = "400", description = "Bad request"),
+            @ApiResponse(responseCode = "429", description = "Too many concurrent authentication requests")
         }
     )
     @PostMapping("/register")
@@ -96,8 +105,11 @@ public class AuthController {
         try {
             var registerResponse = userDetailsService.register(registerRequestDTO, response);
             return ResponseEntity.ok(registerResponse);
+        } catch(TooManyRequestsException e) {
+            return tooManyRequests(e);
         } catch(Exception e) {
-            Map<String, Object> errorResponse = Map.of("error", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
             errorResponse.put("message", "Registration failed: " + e.getMessage());
             errorResponse.put("success", false);
             return ResponseEntity.badRequest().body(errorResponse);
@@ -105,14 +117,36 @@ public class AuthController {
     }            
 
     // refresh token endpoint
-    
+    @Operation(
+        summary = "Refresh",
+        description = "Exchange a refresh token, from the body or the refreshToken cookie, for a new access token "
+            + "and a new refresh token. Each refresh token works once; presenting a used one revokes the session.",
+        responses = {
+            @ApiResponse(
+                responseCode = "200", description = "Tokens rotated",
+                content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = LoginResponseDTO.class)
+                )
+            ),
+            @ApiResponse(responseCode = "401", description = "Refresh token missing, expired, revoked or reused")
+        }
+    )
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponseDTO> refresh(@RequestBody(required = false) RefreshRequestDTO refreshRequestDTO,
+            HttpServletRequest request, HttpServletResponse response) {
+        return ResponseEntity.ok(userDetailsService.refresh(refreshRequestDTO, request, response));
+    }
+
     // logout endpoint
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(HttpServletResponse response) {
+    public ResponseEntity<?> logout(@RequestBody(required = false) RefreshRequestDTO refreshRequestDTO,
+            HttpServletRequest request, HttpServletResponse response) {
         logger.info("Logout attempt");
 
-        userDetailsService.logout(response);
-        Map<String, Object> logoutResponse = Map.of("message", "Logout successful");
+        userDetailsService.logout(refreshRequestDTO, request, response);
+        Map<String, Object> logoutResponse = new HashMap<>();
+        logoutResponse.put("message", "Logout successful");
         logoutResponse.put("success", true);
 
         return ResponseEntity.ok(logoutResponse);
@@ -133,5 +167,13 @@ public class AuthController {
 
         return ResponseEntity.ok(responseBody);
     }
-    
+
+    private ResponseEntity<?> tooManyRequests(TooManyRequestsException e) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", e.getMessage());
+        errorResponse.put("success", false);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
 }
@@ -0,0 +1,57 @@
+package com.bucott.taskmanager.controller;
+
+import java.time.Instant;
+
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.bucott.taskmanager.security.AuthenticatedUser;
+import com.bucott.taskmanager.security.JwtAuthenticationFilter;
+import com.bucott.taskmanager.service.EventStreamService;
+import com.bucott.taskmanager.util.ParsedToken;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping("/api/v1/events")
+@Tag(
+    name = "Events",
+    description = "Server-Sent Events change feed for the authenticated user"
+)
+public class EventController {
+    private final EventStreamService eventStreamService;
+
+    public EventController(EventStreamService eventStreamService) {
+        this.eventStreamService = eventStreamService;
+    }
+
+    @Operation(
+        summary = "Subscribe to changes",
+        description = "Streams task.created, task.updated and task.deleted events, plus session.expiring and "
+            + "session.expired notices for the token used to connect. Reconnect with Last-Event-ID to replay "
+            + "missed events; a reset event means they are gone and the client should refetch.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Event stream")
+        }
+    )
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@AuthenticationPrincipal AuthenticatedUser user,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            HttpServletRequest request, HttpServletResponse response) {
+        ParsedToken token = (ParsedToken) request.getAttribute(JwtAuthenticationFilter.PARSED_TOKEN_ATTRIBUTE);
+        Instant sessionExpiresAt = token != null ? token.expiresAt() : null;
+        // stop reverse proxies from buffering the stream
+        response.setHeader("X-Accel-Buffering", "no");
+        response.setHeader("Cache-Control", "no-cache");
+        return eventStreamService.open(user.getId(), sessionExpiresAt, lastEventId);
+    }
+}
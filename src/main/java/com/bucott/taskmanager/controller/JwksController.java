@@ -0,0 +1,51 @@
+package com.bucott.taskmanager.controller;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bucott.taskmanager.util.JwtKeyRing;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@Tag(
+    name = "Authentication",
+    description = "Authentication and authorization endpoints"
+)
+public class JwksController {
+    private final JwtKeyRing keyRing;
+    private final CacheControl cacheControl;
+
+    public JwksController(JwtKeyRing keyRing, @Value("${jwt.jwks.max-age:5m}") Duration maxAge) {
+        this.keyRing = keyRing;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    @Operation(
+        summary = "Signing keys",
+        description = "Public keys that access tokens are verified with, as a JSON Web Key Set. Match a token's "
+            + "kid header against it; new keys appear here well before tokens are signed with them, so the "
+            + "set can be cached for the advertised max-age and revalidated with If-None-Match.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Key set"),
+            @ApiResponse(responseCode = "304", description = "Key set unchanged")
+        }
+    )
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> jwks() {
+        // with an ETag set, Spring answers a matching If-None-Match with 304 and no body
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(keyRing.jwksETag())
+                .body(keyRing.jwks());
+    }
+}
@@ -0,0 +1,360 @@
+package com.bucott.taskmanager.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.bucott.taskmanager.dto.task.TaskBatchResultDTO;
+import com.bucott.taskmanager.dto.task.TaskBatchUpdateDTO;
+import com.bucott.taskmanager.dto.task.TaskDTO;
+import com.bucott.taskmanager.dto.task.TaskImportEventDTO;
+import com.bucott.taskmanager.dto.task.TaskPageDTO;
+import com.bucott.taskmanager.dto.task.TaskRequestDTO;
+import com.bucott.taskmanager.dto.task.TaskSearchPageDTO;
+import com.bucott.taskmanager.dto.task.TaskStatsDTO;
+import com.bucott.taskmanager.exception.PreconditionFailedException;
+import com.bucott.taskmanager.exception.PreconditionRequiredException;
+import com.bucott.taskmanager.model.TaskStatus;
+import com.bucott.taskmanager.security.AuthenticatedUser;
+import com.bucott.taskmanager.service.TaskBatchService;
+import com.bucott.taskmanager.service.TaskExportService;
+import com.bucott.taskmanager.service.TaskImportService;
+import com.bucott.taskmanager.service.TaskService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping("/api/v1/tasks")
+@Tag(
+    name = "Tasks",
+    description = "Task management endpoints for the authenticated user"
+)
+public class TaskController {
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String MERGE_PATCH = "application/merge-patch+json";
+
+    private final TaskService taskService;
+    private final TaskImportService taskImportService;
+    private final TaskExportService taskExportService;
+    private final TaskBatchService taskBatchService;
+    private final ObjectMapper objectMapper;
+
+    public TaskController(TaskService taskService, TaskImportService taskImportService,
+            TaskExportService taskExportService, TaskBatchService taskBatchService, ObjectMapper objectMapper) {
+        this.taskService = taskService;
+        this.taskImportService = taskImportService;
+        this.taskExportService = taskExportService;
+        this.taskBatchService = taskBatchService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Operation(
+        summary = "List tasks",
+        description = "List the user's tasks ordered by due date then id, undated tasks last. "
+            + "With labels, e.g. \"bug AND urgent AND NOT blocked\", only matching tasks are listed, ordered by id. "
+            + "Pass the returned nextCursor to fetch the following page.",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "A page of tasks",
+                content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = TaskPageDTO.class)
+                )
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, limit or label expression")
+        }
+    )
+    @GetMapping
+    public ResponseEntity<TaskPageDTO> list(@AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) String labels,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(taskService.list(user.getId(), status, labels, cursor, limit));
+    }
+
+    @Operation(
+        summary = "Search tasks",
+        description = "Full-text search over title and description. Every word must match; "
+            + "a word ending in * matches as a prefix. Results are ranked best first and paged by offset.",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "A page of ranked results",
+                content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = TaskSearchPageDTO.class)
+                )
+            ),
+            @ApiResponse(responseCode = "400", description = "Empty query, or invalid offset or limit")
+        }
+    )
+    @GetMapping("/search")
+    public ResponseEntity<TaskSearchPageDTO> search(@AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer offset,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(taskService.search(user.getId(), q, offset, limit));
+    }
+
+    @Operation(
+        summary = "Task counts",
+        description = "Count the user's tasks by status, plus unfinished tasks past their due date. "
+            + "Served from counters kept up to date on every write; overdue advances once a minute by default.",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Task counts",
+                content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = TaskStatsDTO.class)
+                )
+            )
+        }
+    )
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStatsDTO> stats(@AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(taskService.stats(user.getId()));
+    }
+
+    @Operation(
+        summary = "Export tasks",
+        description = "Stream all of the user's tasks as NDJSON or CSV in due date, id index order. "
+            + "The response is gzip-encoded when the client sends Accept-Encoding: gzip.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Export stream"),
+            @ApiResponse(responseCode = "400", description = "Unsupported format")
+        }
+    )
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        TaskExportService.Format exportFormat = TaskExportService.Format.parse(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        Long ownerId = user.getId();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, exportFormat.contentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks." + exportFormat.extension() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        // written on an async thread after this method returns, so the request thread is not held
+        return response.body(out -> taskExportService.export(ownerId, status, exportFormat, gzip, out));
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    @Operation(
+        summary = "Update many tasks",
+        description = "Apply one set of changes (status, due date, assignee) to tasks selected by ids or by a "
+            + "status/label filter, in a single transaction. Ids that are missing or belong to someone else "
+            + "are reported in failures; the rest are updated.",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Counts of matched and updated tasks, and per-id failures",
+                content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = TaskBatchResultDTO.class)
+                )
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid selection or change set, or a filter matching too many tasks")
+        }
+    )
+    @PatchMapping("/batch")
+    public ResponseEntity<TaskBatchResultDTO> updateBatch(@AuthenticationPrincipal AuthenticatedUser user,
+            @RequestBody TaskBatchUpdateDTO request) {
+        return ResponseEntity.ok(taskBatchService.update(user.getId(), request));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<TaskDTO> get(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable Long id) {
+        return withETag(ResponseEntity.ok(), taskService.get(user.getId(), id));
+    }
+
+    @Operation(
+        summary = "Create task",
+        responses = {
+            @ApiResponse(
+                responseCode = "201",
+                description = "Task created",
+                content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = TaskDTO.class)
+                )
+            ),
+            @ApiResponse(responseCode = "400", description = "Bad request")
+        }
+    )
+    @PostMapping
+    public ResponseEntity<TaskDTO> create(@AuthenticationPrincipal AuthenticatedUser user,
+            @RequestBody TaskRequestDTO requestDto) {
+        return withETag(ResponseEntity.status(HttpStatus.CREATED), taskService.create(user.getId(), requestDto));
+    }
+
+    @Operation(
+        summary = "Import tasks",
+        description = "Stream newline-delimited JSON task rows. The body is read incrementally and written "
+            + "in batches; the response streams one NDJSON line per committed batch and per rejected row, "
+            + "followed by a summary line.",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Import report",
+                content = @Content(
+                    mediaType = NDJSON,
+                    schema = @Schema(implementation = TaskImportEventDTO.class)
+                )
+            )
+        }
+    )
+    @PostMapping(value = "/import", consumes = NDJSON, produces = NDJSON)
+    public void importTasks(@AuthenticationPrincipal AuthenticatedUser user, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        OutputStream out = response.getOutputStream();
+        taskImportService.importTasks(user.getId(), request.getInputStream(), event -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(event));
+                out.write('\n');
+                // flush per line so the client sees progress while the upload is still running
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<TaskDTO> update(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody TaskRequestDTO requestDto) {
+        try {
+            return withETag(ResponseEntity.ok(), taskService.update(user.getId(), id, requestDto, expectedVersions(ifMatch)));
+        } catch (OptimisticLockingFailureException e) {
+            throw conflict(user.getId(), id);
+        }
+    }
+
+    @Operation(
+        summary = "Patch task",
+        description = "Apply a JSON Merge Patch (RFC 7396): fields in the body replace the task's values and null "
+            + "clears them. If-Match with the task's ETag is required; if the task has changed since, the "
+            + "response is 412 with the current task and its ETag.",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Task updated",
+                content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = TaskDTO.class)
+                )
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid patch"),
+            @ApiResponse(
+                responseCode = "412",
+                description = "The task has changed; the body is its current state",
+                content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = TaskDTO.class)
+                )
+            ),
+            @ApiResponse(responseCode = "428", description = "If-Match header missing")
+        }
+    )
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH, "application/json"})
+    public ResponseEntity<TaskDTO> patch(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody JsonNode patch) {
+        if (ifMatch == null) {
+            throw new PreconditionRequiredException("PATCH requires an If-Match header with the task's ETag");
+        }
+        try {
+            return withETag(ResponseEntity.ok(), taskService.patch(user.getId(), id, patch, expectedVersions(ifMatch)));
+        } catch (OptimisticLockingFailureException e) {
+            throw conflict(user.getId(), id);
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        taskService.delete(user.getId(), id, expectedVersions(ifMatch));
+        return ResponseEntity.noContent().build();
+    }
+
+    private static ResponseEntity<TaskDTO> withETag(ResponseEntity.BodyBuilder response, TaskDTO task) {
+        return response.eTag(String.valueOf(task.getVersion())).body(task);
+    }
+
+    // Versions accepted by an If-Match header, or null when any version will do (no header, or *).
+    // Weak tags never match under If-Match's strong comparison, so they are dropped.
+    private static Set<Long> expectedVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+                continue;
+            }
+            try {
+                versions.add(Long.parseLong(tag.substring(1, tag.length() - 1)));
+            } catch (NumberFormatException e) {
+                // not one of ours, so it cannot match
+            }
+        }
+        return versions;
+    }
+
+    // Lost the race at flush time: answer like a failed If-Match, with the state that won
+    private PreconditionFailedException conflict(Long ownerId, Long id) {
+        return new PreconditionFailedException("Task " + id + " was changed concurrently", taskService.get(ownerId, id));
+    }
+}
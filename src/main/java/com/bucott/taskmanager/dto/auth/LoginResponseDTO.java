@@ -8,4 +8,5 @@ public class LoginResponseDTO {
     private String username;
     private String email;
     private String token;
+    private String refreshToken;
 }
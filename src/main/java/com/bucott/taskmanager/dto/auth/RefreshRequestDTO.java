@@ -0,0 +1,15 @@
+package com.bucott.taskmanager.dto.auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Clients that cannot keep the refreshToken cookie send the token in the body instead
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RefreshRequestDTO {
+    private String refreshToken;
+}
@@ -0,0 +1,15 @@
+package com.bucott.taskmanager.dto.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskBatchFailureDTO {
+    private Long id;
+    private String message;
+}
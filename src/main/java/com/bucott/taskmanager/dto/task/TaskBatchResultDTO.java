@@ -0,0 +1,19 @@
+package com.bucott.taskmanager.dto.task;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskBatchResultDTO {
+    // tasks selected by the ids or filter
+    private long matched;
+    private long updated;
+    private List<TaskBatchFailureDTO> failures;
+}
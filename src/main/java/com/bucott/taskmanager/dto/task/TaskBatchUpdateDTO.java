@@ -0,0 +1,19 @@
+package com.bucott.taskmanager.dto.task;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Tasks are selected either by ids or by filter, not both
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskBatchUpdateDTO {
+    private List<Long> ids;
+    private TaskFilterDTO filter;
+    private TaskChangesDTO changes;
+}
@@ -0,0 +1,27 @@
+package com.bucott.taskmanager.dto.task;
+
+import java.time.Instant;
+
+import com.bucott.taskmanager.model.TaskStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Fields to set on every selected task; null leaves a field as it is, the clear flags empty it
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskChangesDTO {
+    private TaskStatus status;
+    private Instant dueDate;
+    private boolean clearDueDate;
+    private Long assigneeId;
+    private boolean clearAssignee;
+
+    public boolean isEmpty() {
+        return status == null && dueDate == null && !clearDueDate && assigneeId == null && !clearAssignee;
+    }
+}
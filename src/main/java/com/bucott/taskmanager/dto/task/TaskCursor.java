@@ -0,0 +1,48 @@
+package com.bucott.taskmanager.dto.task;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import com.bucott.taskmanager.exception.InvalidInputException;
+
+// Position of the last task on a page in (dueDate, id) order; dueDate is null for undated tasks,
+// which sort after every dated task
+public record TaskCursor(Instant dueDate, long id) {
+
+    public static TaskCursor after(TaskDTO task) {
+        return new TaskCursor(task.getDueDate(), task.getId());
+    }
+
+    public String encode() {
+        // full precision: due dates keep whatever the client sent, and a truncated one would seek to
+        // before the last row and return it again
+        String due = dueDate != null ? dueDate.getEpochSecond() + "." + dueDate.getNano() : "-";
+        String raw = due + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static TaskCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int separator = raw.indexOf(':');
+            String due = raw.substring(0, separator);
+            long id = Long.parseLong(raw.substring(separator + 1));
+            return new TaskCursor("-".equals(due) ? null : parseInstant(due), id);
+        } catch (RuntimeException e) {
+            throw new InvalidInputException("Invalid cursor");
+        }
+    }
+
+    // <epochSecond>.<nano>, or epoch millis in cursors handed out before nanos were kept
+    private static Instant parseInstant(String due) {
+        int dot = due.indexOf('.');
+        if (dot < 0) {
+            return Instant.ofEpochMilli(Long.parseLong(due));
+        }
+        return Instant.ofEpochSecond(Long.parseLong(due.substring(0, dot)), Long.parseLong(due.substring(dot + 1)));
+    }
+}
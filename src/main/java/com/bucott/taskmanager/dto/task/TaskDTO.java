@@ -0,0 +1,35 @@
+package com.bucott.taskmanager.dto.task;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.bucott.taskmanager.model.TaskStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Also used as a JPQL constructor projection through the constructor without labels,
+// so its argument order matters; labels are attached after the query
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskDTO {
+    private Long id;
+    private String title;
+    private String description;
+    private TaskStatus status;
+    private Instant dueDate;
+    private Long assigneeId;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Long version;
+    private List<String> labels;
+
+    public TaskDTO(Long id, String title, String description, TaskStatus status, Instant dueDate,
+            Long assigneeId, Instant createdAt, Instant updatedAt, Long version) {
+        this(id, title, description, status, dueDate, assigneeId, createdAt, updatedAt, version, List.of());
+    }
+}
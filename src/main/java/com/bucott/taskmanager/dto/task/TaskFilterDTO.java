@@ -0,0 +1,19 @@
+package com.bucott.taskmanager.dto.task;
+
+import com.bucott.taskmanager.model.TaskStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Selects the user's tasks by status and/or a label expression such as "bug AND NOT blocked";
+// an empty filter selects every task
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskFilterDTO {
+    private TaskStatus status;
+    private String labels;
+}
@@ -0,0 +1,27 @@
+package com.bucott.taskmanager.dto.task;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One line of the NDJSON import report: a batch committed, a rejected row, or the final summary
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskImportEventDTO {
+    public static final String BATCH = "batch";
+    public static final String ERROR = "error";
+    public static final String SUMMARY = "summary";
+
+    private String type;
+    private Integer batch;
+    private Long line;
+    private Long imported;
+    private Long failed;
+    private String message;
+}
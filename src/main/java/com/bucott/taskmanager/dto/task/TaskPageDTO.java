@@ -0,0 +1,18 @@
+package com.bucott.taskmanager.dto.task;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskPageDTO {
+    private List<TaskDTO> items;
+    // opaque cursor for the next page, null on the last page
+    private String nextCursor;
+}
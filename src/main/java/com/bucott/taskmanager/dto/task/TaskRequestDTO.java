@@ -0,0 +1,24 @@
+package com.bucott.taskmanager.dto.task;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.bucott.taskmanager.model.TaskStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskRequestDTO {
+    private String title;
+    private String description;
+    private TaskStatus status;
+    private Instant dueDate;
+    private Long assigneeId;
+    private List<String> labels;
+}
@@ -0,0 +1,20 @@
+package com.bucott.taskmanager.dto.task;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskSearchPageDTO {
+    // best match first
+    private List<TaskDTO> items;
+    private int total;
+    // offset of the next page, null on the last page
+    private Integer nextOffset;
+}
@@ -0,0 +1,19 @@
+package com.bucott.taskmanager.dto.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskStatsDTO {
+    private long open;
+    private long inProgress;
+    private long done;
+    // not done and past their due date
+    private long overdue;
+    private long total;
+}
@@ -0,0 +1,17 @@
+package com.bucott.taskmanager.exception;
+
+import com.bucott.taskmanager.dto.task.TaskDTO;
+
+// The client's If-Match no longer matches; carries the current task so it can retry without another GET
+public class PreconditionFailedException extends RuntimeException {
+    private final TaskDTO current;
+
+    public PreconditionFailedException(String message, TaskDTO current) {
+        super(message);
+        this.current = current;
+    }
+
+    public TaskDTO getCurrent() {
+        return current;
+    }
+}
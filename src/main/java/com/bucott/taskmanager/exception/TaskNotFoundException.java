@@ -0,0 +1,7 @@
+package com.bucott.taskmanager.exception;
+
+public class TaskNotFoundException extends RuntimeException {
+    public TaskNotFoundException(String message) {
+        super(message);
+    }
+}
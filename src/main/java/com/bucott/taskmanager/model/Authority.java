@@ -1,6 +1,14 @@
 package com.bucott.taskmanager.model;
 
-public enum Authority {
+import org.springframework.security.core.GrantedAuthority;
+
+// The enum constants are their own GrantedAuthority, so no wrapper objects are allocated per lookup
+public enum Authority implements GrantedAuthority {
     ROLE_USER,
-    ROLE_ADMIN
+    ROLE_ADMIN;
+
+    @Override
+    public String getAuthority() {
+        return name();
+    }
 }
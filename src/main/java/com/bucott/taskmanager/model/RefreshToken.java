@@ -0,0 +1,64 @@
+package com.bucott.taskmanager.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One issued refresh token, stored only as the SHA-256 of its value.
+// Every rotation adds a row to the same family; a used row is kept until the family expires so that
+// presenting it again can be recognised as theft and the whole family revoked.
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+    @Index(name = "ux_refresh_tokens_hash", columnList = "token_hash", unique = true),
+    @Index(name = "ix_refresh_tokens_family", columnList = "family_id"),
+    @Index(name = "ix_refresh_tokens_family_expiry", columnList = "family_expires_at")
+})
+@NoArgsConstructor @Data
+public class RefreshToken {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    // the user's security version at login; a password or role change ends the family
+    @Column(nullable = false)
+    private long securityVersion;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    // absolute end of the family, however often it is rotated; set to the revocation time on revoke
+    @Column(name = "family_expires_at", nullable = false)
+    private Instant familyExpiresAt;
+
+    @Column(nullable = false)
+    private boolean used;
+
+    @Column(nullable = false)
+    private boolean revoked;
+
+    public RefreshToken(String tokenHash, String familyId, Long userId, long securityVersion,
+            Instant expiresAt, Instant familyExpiresAt) {
+        this.tokenHash = tokenHash;
+        this.familyId = familyId;
+        this.userId = userId;
+        this.securityVersion = securityVersion;
+        this.expiresAt = expiresAt;
+        this.familyExpiresAt = familyExpiresAt;
+    }
+}
@@ -0,0 +1,25 @@
+package com.bucott.taskmanager.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Single row recording how far reminders have been delivered, so a restart can send the ones it missed
+@Entity
+@Table(name = "reminder_checkpoint")
+@NoArgsConstructor @AllArgsConstructor @Data
+public class ReminderCheckpoint {
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Instant firedThrough;
+}
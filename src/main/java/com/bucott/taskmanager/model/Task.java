@@ -0,0 +1,106 @@
+package com.bucott.taskmanager.model;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// Listing is keyset-paginated on (due_date, id) within an owner, optionally filtered by status;
+// the composite indexes below match those predicates column for column. Reminders page through
+// due dates across all owners, which ix_tasks_due serves.
+// Updates are versioned and write only the columns that changed.
+@Entity
+@DynamicUpdate
+@Table(name = "tasks", indexes = {
+    @Index(name = "ix_tasks_owner_due", columnList = "owner_id, due_date, id"),
+    @Index(name = "ix_tasks_owner_status_due", columnList = "owner_id, status, due_date, id"),
+    @Index(name = "ix_tasks_due", columnList = "due_date, id")
+})
+@NoArgsConstructor @Data
+public class Task {
+    // pooled sequence rather than IDENTITY: IDENTITY forces an insert per persist and disables JDBC batching
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 100)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "owner_id", nullable = false)
+    @ToString.Exclude @EqualsAndHashCode.Exclude
+    private User owner;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(length = 4000)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private TaskStatus status = TaskStatus.OPEN;
+
+    @Column(name = "due_date")
+    private Instant dueDate;
+
+    // the user the task is delegated to; ownership, and with it access, stays with owner
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "assignee_id")
+    @ToString.Exclude @EqualsAndHashCode.Exclude
+    private User assignee;
+
+    // filtering by label is served from in-memory bitmaps (TaskLabelIndex), so the table only needs the key
+    @ElementCollection
+    @CollectionTable(name = "task_labels", joinColumns = @JoinColumn(name = "task_id"))
+    @Column(name = "label", nullable = false, length = 64)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude @EqualsAndHashCode.Exclude
+    private Set<String> labels = new HashSet<>();
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    // optimistic lock; exposed to clients as the ETag
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @PrePersist
+    void onCreate() {
+        createdAt = Instant.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        updatedAt = Instant.now();
+    }
+}
@@ -0,0 +1,37 @@
+package com.bucott.taskmanager.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Periodic snapshot of a user's in-memory task counters, for reporting outside the application.
+// The live values are rebuilt from the tasks table, never read back from here.
+@Entity
+@Table(name = "task_stats")
+@NoArgsConstructor @AllArgsConstructor @Data
+public class TaskStats {
+    @Id
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Column(nullable = false)
+    private long openCount;
+
+    @Column(nullable = false)
+    private long inProgressCount;
+
+    @Column(nullable = false)
+    private long doneCount;
+
+    @Column(nullable = false)
+    private long overdueCount;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
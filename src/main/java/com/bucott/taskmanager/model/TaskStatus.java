@@ -0,0 +1,7 @@
+package com.bucott.taskmanager.model;
+
+public enum TaskStatus {
+    OPEN,
+    IN_PROGRESS,
+    DONE
+}
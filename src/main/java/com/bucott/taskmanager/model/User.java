@@ -1,34 +1,53 @@
 package com.bucott.taskmanager.model;
 
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
-import org.hibernate.annotations.Cascade;
-import org.hibernate.annotations.CascadeType;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
-@Entity @Table(name = "users")
+@Entity
+@Table(name = "users", indexes = {
+    @Index(name = User.USERNAME_INDEX, columnList = "username", unique = true),
+    @Index(name = User.EMAIL_INDEX, columnList = "email", unique = true)
+})
 @NoArgsConstructor @Data
 public class User implements UserDetails {
+    public static final String USERNAME_INDEX = "ux_users_username";
+    public static final String EMAIL_INDEX = "ux_users_email";
+
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    @Column(nullable = false)
     private String username;
+    @Column(nullable = false)
     private String email;
+    @ToString.Exclude
     private String password;
 
-    @ManyToMany @Cascade(CascadeType.ALL)
+    // bumped whenever roles or password change, invalidating tokens issued before the change
+    @Column(nullable = false)
+    private long securityVersion = 0;
+
+    // roles are shared reference rows owned by RoleRegistry, so nothing cascades to them.
+    // excluded so logging or hashing a user never triggers the lazy role load
+    @ManyToMany
+    @ToString.Exclude @EqualsAndHashCode.Exclude
     private Set<Role> roles = new HashSet<>();
     
     public User(String username, String email, String password) {
@@ -37,11 +56,17 @@ public class User implements UserDetails {
         this.password = password;
     }
 
+    public void incrementSecurityVersion() {
+        this.securityVersion++;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return roles.stream()
-                .map(role -> (GrantedAuthority) () -> role.getAuthority().toString())
-                .collect(Collectors.toSet());
+        EnumSet<Authority> authorities = EnumSet.noneOf(Authority.class);
+        for (Role role : roles) {
+            authorities.add(role.getAuthority());
+        }
+        return authorities;
     }
 
     @Override
@@ -0,0 +1,33 @@
+package com.bucott.taskmanager.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.bucott.taskmanager.model.RefreshToken;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // Compare-and-set, so of two concurrent refreshes with the same token only one can rotate it
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.used = true WHERE r.id = :id AND r.used = false AND r.revoked = false")
+    int markUsed(Long id);
+
+    // Moving the family's expiry to now also hands it to the next purge
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true, r.familyExpiresAt = :now WHERE r.familyId = :familyId")
+    int revokeFamily(String familyId, Instant now);
+
+    @Query("SELECT r.id FROM RefreshToken r WHERE r.familyExpiresAt <= :now")
+    List<Long> findIdsOfExpiredFamilies(Instant now, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.id IN :ids")
+    int deleteByIdIn(List<Long> ids);
+}
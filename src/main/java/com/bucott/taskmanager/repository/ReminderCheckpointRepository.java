@@ -0,0 +1,8 @@
+package com.bucott.taskmanager.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.bucott.taskmanager.model.ReminderCheckpoint;
+
+public interface ReminderCheckpointRepository extends JpaRepository<ReminderCheckpoint, Long> {
+}
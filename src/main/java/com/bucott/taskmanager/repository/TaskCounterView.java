@@ -0,0 +1,15 @@
+package com.bucott.taskmanager.repository;
+
+import java.time.Instant;
+
+import com.bucott.taskmanager.model.TaskStatus;
+
+public interface TaskCounterView {
+    Long getId();
+
+    Long getVersion();
+
+    TaskStatus getStatus();
+
+    Instant getDueDate();
+}
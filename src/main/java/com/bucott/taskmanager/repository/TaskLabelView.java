@@ -0,0 +1,12 @@
+package com.bucott.taskmanager.repository;
+
+import com.bucott.taskmanager.model.TaskStatus;
+
+// One (task, label) pair; label is null for a task without labels when selected with a left join
+public interface TaskLabelView {
+    Long getTaskId();
+
+    TaskStatus getStatus();
+
+    String getLabel();
+}
@@ -0,0 +1,17 @@
+package com.bucott.taskmanager.repository;
+
+import java.time.Instant;
+
+import com.bucott.taskmanager.model.TaskStatus;
+
+public interface TaskReminderView {
+    Long getId();
+
+    Long getOwnerId();
+
+    String getTitle();
+
+    Instant getDueDate();
+
+    TaskStatus getStatus();
+}
@@ -0,0 +1,86 @@
+package com.bucott.taskmanager.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import com.bucott.taskmanager.dto.task.TaskDTO;
+import com.bucott.taskmanager.model.Task;
+import com.bucott.taskmanager.model.TaskStatus;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
+    Optional<Task> findByIdAndOwnerId(Long id, Long ownerId);
+
+    @Query(TaskRepositoryImpl.TASK_DTO_SELECT + " WHERE t.id = :id AND t.owner.id = :ownerId")
+    Optional<TaskDTO> findDtoByIdAndOwnerId(Long id, Long ownerId);
+
+    @Query(TaskRepositoryImpl.TASK_DTO_SELECT + " WHERE t.owner.id = :ownerId AND t.id IN :ids")
+    List<TaskDTO> findDtosByOwnerIdAndIdIn(Long ownerId, Collection<Long> ids);
+
+    // The *ForUpdate reads lock the rows until the transaction ends, so the state they return is still
+    // current when the write that follows publishes it as the previous state of a TaskChangedEvent
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(TaskRepositoryImpl.TASK_DTO_SELECT + " WHERE t.id = :id AND t.owner.id = :ownerId")
+    Optional<TaskDTO> findDtoForUpdateByIdAndOwnerId(Long id, Long ownerId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(TaskRepositoryImpl.TASK_DTO_SELECT + " WHERE t.owner.id = :ownerId AND t.id IN :ids")
+    List<TaskDTO> findDtosForUpdateByOwnerIdAndIdIn(Long ownerId, Collection<Long> ids);
+
+    @Query("SELECT t.id FROM Task t WHERE t.owner.id = :ownerId AND (:status IS NULL OR t.status = :status) ORDER BY t.id")
+    List<Long> findIdsByOwnerIdAndStatus(Long ownerId, TaskStatus status, Limit limit);
+
+    @Query("SELECT DISTINCT t.owner.id FROM Task t")
+    List<Long> findOwnerIds();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t.id AS id, t.title AS title, t.description AS description FROM Task t WHERE t.owner.id = :ownerId")
+    Stream<TaskTextView> streamTextByOwnerId(Long ownerId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t.id AS taskId, t.status AS status, l AS label FROM Task t LEFT JOIN t.labels l "
+            + "WHERE t.owner.id = :ownerId")
+    Stream<TaskLabelView> streamLabelsByOwnerId(Long ownerId);
+
+    @Query("SELECT t.id AS taskId, t.status AS status, l AS label FROM Task t JOIN t.labels l WHERE t.id IN :ids")
+    List<TaskLabelView> findLabelsByIdIn(Collection<Long> ids);
+
+    // one statement, so the counts and versions it yields are a single consistent snapshot
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t.id AS id, t.version AS version, t.status AS status, t.dueDate AS dueDate "
+            + "FROM Task t WHERE t.owner.id = :ownerId")
+    Stream<TaskCounterView> streamCounterViewsByOwnerId(Long ownerId);
+
+    // next page of reminder candidates after the (dueDate, id) keyset position, due before the given instant
+    @Query("SELECT t.id AS id, t.owner.id AS ownerId, t.title AS title, t.dueDate AS dueDate, t.status AS status "
+            + "FROM Task t WHERE t.dueDate < :before AND t.status <> com.bucott.taskmanager.model.TaskStatus.DONE "
+            + "AND (t.dueDate > :afterDue OR (t.dueDate = :afterDue AND t.id > :afterId)) ORDER BY t.dueDate, t.id")
+    List<TaskReminderView> findReminderWindow(Instant afterDue, Long afterId, Instant before, Limit limit);
+
+    @Query("SELECT t.id AS id, t.owner.id AS ownerId, t.title AS title, t.dueDate AS dueDate, t.status AS status "
+            + "FROM Task t WHERE t.id IN :ids")
+    List<TaskReminderView> findRemindersByIdIn(Collection<Long> ids);
+
+    // ownership is part of the statement, so another user's task is never touched
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.id = :id AND t.owner.id = :ownerId")
+    int deleteByIdAndOwnerId(Long id, Long ownerId);
+
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.id = :id AND t.owner.id = :ownerId AND t.version = :version")
+    int deleteByIdAndOwnerIdAndVersion(Long id, Long ownerId, Long version);
+}
@@ -0,0 +1,22 @@
+package com.bucott.taskmanager.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.bucott.taskmanager.dto.task.TaskChangesDTO;
+import com.bucott.taskmanager.dto.task.TaskCursor;
+import com.bucott.taskmanager.dto.task.TaskDTO;
+import com.bucott.taskmanager.model.TaskStatus;
+
+public interface TaskRepositoryCustom {
+    // Keyset page in (dueDate, id) order, undated tasks last; status may be null for all statuses
+    List<TaskDTO> findPage(Long ownerId, TaskStatus status, TaskCursor after, int limit);
+
+    // Forward-only cursor over every task of an owner; must be consumed and closed inside a transaction
+    Stream<TaskDTO> streamAll(Long ownerId, TaskStatus status, int fetchSize);
+
+    // One UPDATE over the given ids, restricted to the owner's tasks; returns the rows changed
+    int bulkUpdate(Long ownerId, Collection<Long> ids, TaskChangesDTO changes, Instant updatedAt);
+}
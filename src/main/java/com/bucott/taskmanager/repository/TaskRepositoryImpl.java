@@ -0,0 +1,149 @@
+package com.bucott.taskmanager.repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import com.bucott.taskmanager.dto.task.TaskChangesDTO;
+import com.bucott.taskmanager.dto.task.TaskCursor;
+import com.bucott.taskmanager.dto.task.TaskDTO;
+import com.bucott.taskmanager.model.TaskStatus;
+import com.bucott.taskmanager.model.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+
+// Each page is at most two index range scans: the dated region seeks past the cursor on
+// (owner_id[, status], due_date, id), the undated region continues on id. No OFFSET, so
+// the cost of a page does not depend on how deep into the listing it is.
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+    static final String TASK_DTO_SELECT = "SELECT new com.bucott.taskmanager.dto.task.TaskDTO("
+            + "t.id, t.title, t.description, t.status, t.dueDate, t.assignee.id, t.createdAt, t.updatedAt, t.version) "
+            + "FROM Task t";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TaskDTO> findPage(Long ownerId, TaskStatus status, TaskCursor after, int limit) {
+        List<TaskDTO> page = new ArrayList<>(limit);
+
+        if (after == null || after.dueDate() != null) {
+            StringBuilder jpql = new StringBuilder(TASK_DTO_SELECT)
+                    .append(" WHERE t.owner.id = :ownerId AND t.dueDate IS NOT NULL");
+            if (status != null) {
+                jpql.append(" AND t.status = :status");
+            }
+            if (after != null) {
+                jpql.append(" AND (t.dueDate > :dueDate OR (t.dueDate = :dueDate AND t.id > :id))");
+            }
+            jpql.append(" ORDER BY t.dueDate, t.id");
+
+            TypedQuery<TaskDTO> query = entityManager.createQuery(jpql.toString(), TaskDTO.class)
+                    .setParameter("ownerId", ownerId)
+                    .setMaxResults(limit);
+            if (status != null) {
+                query.setParameter("status", status);
+            }
+            if (after != null) {
+                query.setParameter("dueDate", after.dueDate()).setParameter("id", after.id());
+            }
+            page.addAll(query.getResultList());
+        }
+
+        if (page.size() < limit) {
+            StringBuilder jpql = new StringBuilder(TASK_DTO_SELECT)
+                    .append(" WHERE t.owner.id = :ownerId AND t.dueDate IS NULL");
+            if (status != null) {
+                jpql.append(" AND t.status = :status");
+            }
+            boolean seek = after != null && after.dueDate() == null;
+            if (seek) {
+                jpql.append(" AND t.id > :id");
+            }
+            jpql.append(" ORDER BY t.id");
+
+            TypedQuery<TaskDTO> query = entityManager.createQuery(jpql.toString(), TaskDTO.class)
+                    .setParameter("ownerId", ownerId)
+                    .setMaxResults(limit - page.size());
+            if (status != null) {
+                query.setParameter("status", status);
+            }
+            if (seek) {
+                query.setParameter("id", after.id());
+            }
+            page.addAll(query.getResultList());
+        }
+        return page;
+    }
+
+    // Same order as findPage, dated tasks first and undated ones after them, each half walking
+    // ix_tasks_owner_due / ix_tasks_owner_status_due rather than sorting the whole result; a single
+    // ORDER BY t.dueDate would put the undated ones first. Rows are DTO projections, never managed
+    // entities, so the persistence context stays empty however many rows are read.
+    @Override
+    public Stream<TaskDTO> streamAll(Long ownerId, TaskStatus status, int fetchSize) {
+        // concat rather than flatMap: flatMap would buffer the whole dated half for an iterating consumer
+        return Stream.concat(streamRegion(ownerId, status, true, fetchSize),
+                streamRegion(ownerId, status, false, fetchSize));
+    }
+
+    private Stream<TaskDTO> streamRegion(Long ownerId, TaskStatus status, boolean dated, int fetchSize) {
+        StringBuilder jpql = new StringBuilder(TASK_DTO_SELECT)
+                .append(" WHERE t.owner.id = :ownerId AND t.dueDate IS ").append(dated ? "NOT NULL" : "NULL");
+        if (status != null) {
+            jpql.append(" AND t.status = :status");
+        }
+        jpql.append(dated ? " ORDER BY t.dueDate, t.id" : " ORDER BY t.id");
+
+        TypedQuery<TaskDTO> query = entityManager.createQuery(jpql.toString(), TaskDTO.class)
+                .setParameter("ownerId", ownerId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        return query.getResultStream();
+    }
+
+    // Bulk JPQL skips the entity lifecycle, so updatedAt and the version are maintained here
+    @Override
+    public int bulkUpdate(Long ownerId, Collection<Long> ids, TaskChangesDTO changes, Instant updatedAt) {
+        StringBuilder jpql = new StringBuilder("UPDATE Task t SET t.updatedAt = :updatedAt, t.version = t.version + 1");
+        if (changes.getStatus() != null) {
+            jpql.append(", t.status = :status");
+        }
+        if (changes.isClearDueDate()) {
+            jpql.append(", t.dueDate = NULL");
+        } else if (changes.getDueDate() != null) {
+            jpql.append(", t.dueDate = :dueDate");
+        }
+        if (changes.isClearAssignee()) {
+            jpql.append(", t.assignee = NULL");
+        } else if (changes.getAssigneeId() != null) {
+            jpql.append(", t.assignee = :assignee");
+        }
+        jpql.append(" WHERE t.owner.id = :ownerId AND t.id IN :ids");
+
+        Query query = entityManager.createQuery(jpql.toString())
+                .setParameter("updatedAt", updatedAt)
+                .setParameter("ownerId", ownerId)
+                .setParameter("ids", ids);
+        if (changes.getStatus() != null) {
+            query.setParameter("status", changes.getStatus());
+        }
+        if (!changes.isClearDueDate() && changes.getDueDate() != null) {
+            query.setParameter("dueDate", changes.getDueDate());
+        }
+        if (!changes.isClearAssignee() && changes.getAssigneeId() != null) {
+            query.setParameter("assignee", entityManager.getReference(User.class, changes.getAssigneeId()));
+        }
+        return query.executeUpdate();
+    }
+}
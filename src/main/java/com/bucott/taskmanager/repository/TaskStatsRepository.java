@@ -0,0 +1,8 @@
+package com.bucott.taskmanager.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.bucott.taskmanager.model.TaskStats;
+
+public interface TaskStatsRepository extends JpaRepository<TaskStats, Long> {
+}
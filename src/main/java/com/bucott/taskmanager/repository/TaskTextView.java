@@ -0,0 +1,10 @@
+package com.bucott.taskmanager.repository;
+
+// Just the searchable text of a task, for building the search index
+public interface TaskTextView {
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+}
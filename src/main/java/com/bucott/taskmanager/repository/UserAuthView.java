@@ -0,0 +1,13 @@
+package com.bucott.taskmanager.repository;
+
+import com.bucott.taskmanager.model.Authority;
+
+// Flat projection of the columns needed to authenticate a user, one row per role
+public interface UserAuthView {
+    Long getId();
+    String getUsername();
+    String getEmail();
+    String getPassword();
+    long getSecurityVersion();
+    Authority getAuthority();
+}
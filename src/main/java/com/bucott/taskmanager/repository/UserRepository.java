@@ -1,15 +1,68 @@
 package com.bucott.taskmanager.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.bucott.taskmanager.model.User;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
-    
-    @Query("SELECT u FROM User u WHERE u.username = :identifier OR u.email = :identifier")
-    Optional<User> findByUsernameOrEmail(String identifier);
+
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesByUsername(String username);
+
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesByEmail(String email);
+
+    // Two indexed equality lookups instead of a single OR predicate, which cannot use both unique indexes
+    default Optional<User> findByUsernameOrEmail(String identifier) {
+        if (looksLikeEmail(identifier)) {
+            return findWithRolesByEmail(identifier).or(() -> findWithRolesByUsername(identifier));
+        }
+        return findWithRolesByUsername(identifier).or(() -> findWithRolesByEmail(identifier));
+    }
+
+    @Query("SELECT u.id AS id, u.username AS username, u.email AS email, u.password AS password, "
+            + "u.securityVersion AS securityVersion, r.authority AS authority "
+            + "FROM User u LEFT JOIN u.roles r WHERE u.username = :username")
+    List<UserAuthView> findAuthViewsByUsername(String username);
+
+    @Query("SELECT u.id AS id, u.username AS username, u.email AS email, u.password AS password, "
+            + "u.securityVersion AS securityVersion, r.authority AS authority "
+            + "FROM User u LEFT JOIN u.roles r WHERE u.email = :email")
+    List<UserAuthView> findAuthViewsByEmail(String email);
+
+    @Query("SELECT u.id AS id, u.username AS username, u.email AS email, u.password AS password, "
+            + "u.securityVersion AS securityVersion, r.authority AS authority "
+            + "FROM User u LEFT JOIN u.roles r WHERE u.id = :id")
+    List<UserAuthView> findAuthViewsById(Long id);
+
+    default List<UserAuthView> findAuthViewsByUsernameOrEmail(String identifier) {
+        List<UserAuthView> rows = looksLikeEmail(identifier)
+                ? findAuthViewsByEmail(identifier)
+                : findAuthViewsByUsername(identifier);
+        if (!rows.isEmpty()) {
+            return rows;
+        }
+        return looksLikeEmail(identifier)
+                ? findAuthViewsByUsername(identifier)
+                : findAuthViewsByEmail(identifier);
+    }
+
+    // Compare-and-set so a concurrent password change is never overwritten by a rehash of the old password
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.username = :username AND u.password = :oldHash")
+    int updatePasswordHash(String username, String oldHash, String newHash);
+
+    private static boolean looksLikeEmail(String identifier) {
+        return identifier != null && identifier.indexOf('@') >= 0;
+    }
 }
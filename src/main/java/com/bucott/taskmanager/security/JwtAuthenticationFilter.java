@@ -1,15 +1,19 @@
 package com.bucott.taskmanager.security;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.bucott.taskmanager.service.UserDetailsServiceImpl;
 import com.bucott.taskmanager.util.JwtUtil;
+import com.bucott.taskmanager.util.ParsedToken;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -17,40 +21,80 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    // the verified token of an authenticated request, for handlers that need its expiry
+    public static final String PARSED_TOKEN_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".token";
+
     private final JwtUtil jwtUtil;
     private final UserDetailsServiceImpl userDetailsService;
+    private final TokenRevocationStore revocationStore;
+    private final boolean stateless;
+    private final Duration maxStaleness;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsServiceImpl userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsServiceImpl userDetailsService,
+            TokenRevocationStore revocationStore, boolean stateless, Duration maxStaleness) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.revocationStore = revocationStore;
+        this.stateless = stateless;
+        this.maxStaleness = maxStaleness;
     }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
             throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
+        ParsedToken parsedToken = null;
         String token = null;
-        String username = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             token = authHeader.substring(7);
+        } else if (isSafeMethod(request)) {
+            // browsers cannot set headers on EventSource, so read-only requests may use the auth cookie;
+            // CSRF is disabled, which is why state-changing requests still require the header
+            token = userDetailsService.extractTokenFromCookie(request.getCookies());
+        }
+
+        if (token != null && !token.isEmpty()) {
             try {
-                username = jwtUtil.extractUsername(token);
+                // single verification pass: signature, expiry and claims
+                parsedToken = jwtUtil.verify(token);
             } catch (Exception e) {
                 // invalid token, let security handle it
             }
         }
+        if (parsedToken != null && revocationStore.isRevoked(parsedToken)) {
+            // logged out before it expired
+            parsedToken = null;
+        }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            var userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtUtil.validateToken(token, userDetails.getUsername())) {
+        if (parsedToken != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = resolveUser(parsedToken);
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
+                request.setAttribute(PARSED_TOKEN_ATTRIBUTE, parsedToken);
             }
         }
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private static boolean isSafeMethod(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+    }
+
+    // Trust the embedded claims while the token is fresh; fall back to the DB once it is older than maxStaleness
+    private UserDetails resolveUser(ParsedToken parsedToken) {
+        if (stateless && parsedToken.hasEmbeddedAuthorities() && parsedToken.isFresh(Instant.now(), maxStaleness)) {
+            return userDetailsService.loadUserFromClaims(parsedToken);
+        }
+        try {
+            return userDetailsService.loadUserForToken(parsedToken);
+        } catch (Exception e) {
+            // user removed or token superseded, leave the request unauthenticated
+            return null;
+        }
+    }
+}
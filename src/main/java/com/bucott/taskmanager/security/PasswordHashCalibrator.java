@@ -0,0 +1,63 @@
+package com.bucott.taskmanager.security;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+// Measures hashing cost on this host so the work factor can be tuned against a latency target
+public final class PasswordHashCalibrator {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashCalibrator.class);
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+    private static final int SAMPLES = 3;
+    private static final int PBKDF2_PROBE_ITERATIONS = 50_000;
+    private static final int PBKDF2_ITERATION_STEP = 10_000;
+
+    private PasswordHashCalibrator() {
+    }
+
+    // Highest BCrypt strength whose hash time stays within target, never below minStrength.
+    // Each strength step doubles the cost, so probing stops at the first step over target.
+    public static int calibrateBcryptStrength(Duration target, int minStrength, int maxStrength) {
+        int chosen = minStrength;
+        for (int strength = minStrength; strength <= maxStrength; strength++) {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+            long nanos = medianNanos(() -> encoder.encode(SAMPLE_PASSWORD));
+            logger.debug("BCrypt strength {} took {} ms", strength, nanos / 1_000_000);
+            if (nanos > target.toNanos()) {
+                break;
+            }
+            chosen = strength;
+        }
+        logger.info("Calibrated BCrypt strength {} for a target of {} ms per hash", chosen, target.toMillis());
+        return chosen;
+    }
+
+    // PBKDF2 cost is linear in the iteration count, so one probe is enough to scale to target.
+    // Rounded down so timing noise between restarts rarely changes the count and triggers rehashing.
+    public static int calibratePbkdf2Iterations(Duration target, int minIterations) {
+        Pbkdf2PasswordEncoder encoder = new Pbkdf2PasswordEncoder("", 16, PBKDF2_PROBE_ITERATIONS,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+        long nanos = Math.max(1, medianNanos(() -> encoder.encode(SAMPLE_PASSWORD)));
+        long scaled = PBKDF2_PROBE_ITERATIONS * target.toNanos() / nanos;
+        long rounded = scaled / PBKDF2_ITERATION_STEP * PBKDF2_ITERATION_STEP;
+        int chosen = (int) Math.max(minIterations, Math.min(Integer.MAX_VALUE, rounded));
+        logger.info("Calibrated PBKDF2 iterations {} for a target of {} ms per hash", chosen, target.toMillis());
+        return chosen;
+    }
+
+    private static long medianNanos(Runnable hash) {
+        hash.run(); // warm up
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            hash.run();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
@@ -0,0 +1,71 @@
+package com.bucott.taskmanager.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+// PBKDF2-HMAC-SHA256 hashes that carry their own iteration count as <iterations>$<hex>, the way a BCrypt
+// hash carries its strength. Pbkdf2PasswordEncoder's output does not, so a hash could only be checked with
+// the count that happens to be configured, and changing or recalibrating it locked every user out.
+// Hashes without a count predate this format; they are checked with legacyIterations and always upgraded.
+public class Pbkdf2CostPasswordEncoder implements PasswordEncoder {
+    private static final int SALT_LENGTH = 16;
+    private static final char SEPARATOR = '$';
+
+    private final int iterations;
+    private final int legacyIterations;
+    private final Map<Integer, Pbkdf2PasswordEncoder> encoders = new ConcurrentHashMap<>();
+
+    public Pbkdf2CostPasswordEncoder(int iterations, int legacyIterations) {
+        if (iterations <= 0 || legacyIterations <= 0) {
+            throw new IllegalArgumentException("PBKDF2 iterations must be positive");
+        }
+        this.iterations = iterations;
+        this.legacyIterations = legacyIterations;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return iterations + String.valueOf(SEPARATOR) + encoder(iterations).encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        int separator = encodedPassword.indexOf(SEPARATOR);
+        if (separator < 0) {
+            return encoder(legacyIterations).matches(rawPassword, encodedPassword);
+        }
+        int storedIterations = storedIterations(encodedPassword, separator);
+        return storedIterations > 0
+                && encoder(storedIterations).matches(rawPassword, encodedPassword.substring(separator + 1));
+    }
+
+    // Rehash legacy hashes and ones made with fewer iterations than configured, never the other way
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        int separator = encodedPassword.indexOf(SEPARATOR);
+        return separator < 0 || storedIterations(encodedPassword, separator) < iterations;
+    }
+
+    private static int storedIterations(String encodedPassword, int separator) {
+        try {
+            return Integer.parseInt(encodedPassword, 0, separator, 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // only a handful of counts are ever in use, one per configuration the deployment has run with
+    private Pbkdf2PasswordEncoder encoder(int count) {
+        return encoders.computeIfAbsent(count, c -> new Pbkdf2PasswordEncoder("", SALT_LENGTH, c,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+    }
+}
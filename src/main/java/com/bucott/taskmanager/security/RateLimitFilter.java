@@ -0,0 +1,197 @@
+package com.bucott.taskmanager.security;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.bucott.taskmanager.config.RateLimitProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Throttles the configured endpoints per client IP and per account before any password hashing happens.
+// The account is read from the JSON body, which is then replayed to the controller unchanged.
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimiter rateLimiter, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !rateLimiter.properties().enabled() || !"POST".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Map.Entry<String, RateLimitProperties.Endpoint> entry : rateLimiter.properties().endpoints().entrySet()) {
+            RateLimitProperties.Endpoint endpoint = entry.getValue();
+            if (!path.equals(endpoint.path())) {
+                continue;
+            }
+
+            long waitNanos = rateLimiter.tryAcquire(entry.getKey(), RateLimiter.CLIENT, request.getRemoteAddr(),
+                    endpoint.perClient());
+            if (waitNanos == 0 && endpoint.perAccount() != null) {
+                BufferedBodyRequest buffered = new BufferedBodyRequest(request,
+                        (int) rateLimiter.properties().maxInspectedBody().toBytes());
+                request = buffered;
+                waitNanos = rateLimiter.tryAcquire(entry.getKey(), RateLimiter.ACCOUNT,
+                        readAccount(buffered.prefix(), endpoint.accountField()), endpoint.perAccount());
+            }
+            if (waitNanos > 0) {
+                reject(response, RateLimiter.toRetryAfterSeconds(waitNanos));
+                return;
+            }
+            break;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private String readAccount(byte[] body, String field) {
+        try {
+            JsonNode value = objectMapper.readTree(body).get(field);
+            return value != null && value.isTextual() ? value.asText() : null;
+        } catch (IOException e) {
+            // malformed or truncated body, the per-client limit still applies
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "Too Many Requests");
+        body.put("message", "Rate limit exceeded, try again later");
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    // Reads up to maxBytes of the body up front and replays them, followed by whatever was not read.
+    // Blocking and non-blocking reads both see the replayed prefix first; the rest is the container's stream.
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] prefix;
+        private final ReplayInputStream replay;
+        private BufferedReader reader;
+
+        BufferedBodyRequest(HttpServletRequest request, int maxBytes) throws IOException {
+            super(request);
+            ServletInputStream original = request.getInputStream();
+            this.prefix = original.readNBytes(maxBytes);
+            // a short read means the body ended inside the prefix
+            this.replay = new ReplayInputStream(prefix, original, prefix.length < maxBytes);
+        }
+
+        byte[] prefix() {
+            return prefix;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return replay;
+        }
+
+        @Override
+        public BufferedReader getReader() throws UnsupportedEncodingException {
+            if (reader == null) {
+                String encoding = getCharacterEncoding();
+                // ISO-8859-1 is what the container's own reader falls back to
+                Charset charset;
+                try {
+                    charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+                } catch (IllegalArgumentException e) {
+                    throw new UnsupportedEncodingException(encoding);
+                }
+                reader = new BufferedReader(new InputStreamReader(replay, charset));
+            }
+            return reader;
+        }
+    }
+
+    private static final class ReplayInputStream extends ServletInputStream {
+        private final ByteArrayInputStream buffered;
+        private final ServletInputStream original;
+        private final boolean complete;
+
+        ReplayInputStream(byte[] prefix, ServletInputStream original, boolean complete) {
+            this.buffered = new ByteArrayInputStream(prefix);
+            this.original = original;
+            this.complete = complete;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (buffered.available() > 0) {
+                return buffered.read();
+            }
+            return complete ? -1 : original.read();
+        }
+
+        @Override
+        public int read(@NonNull byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (buffered.available() > 0) {
+                return buffered.read(b, off, len);
+            }
+            return complete ? -1 : original.read(b, off, len);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return buffered.available() == 0 && (complete || original.isFinished());
+        }
+
+        @Override
+        public boolean isReady() {
+            return buffered.available() > 0 || complete || original.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            if (!complete) {
+                // the container calls back as the rest arrives, and the listener drains the prefix first
+                original.setReadListener(readListener);
+                return;
+            }
+            // the whole body is already in memory, so there is nothing to wait for
+            try {
+                readListener.onDataAvailable();
+                if (isFinished()) {
+                    readListener.onAllDataRead();
+                }
+            } catch (IOException | RuntimeException e) {
+                readListener.onError(e);
+            }
+        }
+    }
+}
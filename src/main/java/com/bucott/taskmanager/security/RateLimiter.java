@@ -0,0 +1,85 @@
+package com.bucott.taskmanager.security;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import com.bucott.taskmanager.config.RateLimitProperties;
+import com.bucott.taskmanager.config.RateLimitProperties.Limit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Token buckets per (endpoint, client IP) and (endpoint, account).
+// Buckets live in a bounded Caffeine table that evicts keys idle for longer than
+// rate-limit.idle-timeout, so memory stays bounded under key churn.
+@Component
+public class RateLimiter implements MeterBinder {
+    public static final String CLIENT = "client";
+    public static final String ACCOUNT = "account";
+
+    private final RateLimitProperties properties;
+    private final Cache<String, TokenBucket> buckets;
+    private final long origin = System.nanoTime();
+    private MeterRegistry meterRegistry;
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.properties = properties;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxKeys())
+                .expireAfterAccess(properties.idleTimeout())
+                .recordStats()
+                .build();
+    }
+
+    public RateLimitProperties properties() {
+        return properties;
+    }
+
+    // Returns 0 if the request is admitted, otherwise the nanoseconds to wait before retrying
+    public long tryAcquire(String endpoint, String keyType, String key, Limit limit) {
+        if (limit == null || key == null || key.isEmpty()) {
+            return 0;
+        }
+        long intervalNanos = Math.max(1, limit.period().toNanos() / limit.capacity());
+        long burstNanos = intervalNanos * limit.capacity();
+        String bucketKey = endpoint + '|' + keyType + '|' + key.toLowerCase(Locale.ROOT);
+        TokenBucket bucket = buckets.get(bucketKey, k -> new TokenBucket());
+        long waitNanos = bucket.tryAcquire(System.nanoTime() - origin, intervalNanos, burstNanos);
+        if (waitNanos > 0) {
+            rejected(endpoint, keyType);
+        }
+        return waitNanos;
+    }
+
+    public static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    public long trackedKeys() {
+        return buckets.estimatedSize();
+    }
+
+    private void rejected(String endpoint, String keyType) {
+        if (meterRegistry != null) {
+            Counter.builder("rate.limit.rejected")
+                    .description("Requests rejected by the authentication rate limiter")
+                    .tag("endpoint", endpoint)
+                    .tag("key", keyType)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        this.meterRegistry = registry;
+        CaffeineCacheMetrics.monitor(registry, buckets, "rate.limit.buckets");
+    }
+}
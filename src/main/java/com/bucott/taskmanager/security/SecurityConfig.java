@@ -1,5 +1,8 @@
 package com.bucott.taskmanager.security;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,20 +13,32 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 
 import com.bucott.taskmanager.service.UserDetailsServiceImpl;
 import com.bucott.taskmanager.util.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.DispatcherType;
 
 @Configuration
 public class SecurityConfig {
     private final JwtUtil jwtUtil;
     private final UserDetailsServiceImpl userDetailsService;
+    private final TokenRevocationStore revocationStore;
+    private final boolean statelessAuthentication;
+    private final Duration maxTokenStaleness;
 
-    public SecurityConfig(JwtUtil jwtUtil, UserDetailsServiceImpl userDetailsService) {
+    public SecurityConfig(JwtUtil jwtUtil, UserDetailsServiceImpl userDetailsService,
+            TokenRevocationStore revocationStore,
+            @Value("${jwt.stateless.enabled:true}") boolean statelessAuthentication,
+            @Value("${jwt.stateless.max-staleness:15m}") Duration maxTokenStaleness) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.revocationStore = revocationStore;
+        this.statelessAuthentication = statelessAuthentication;
+        this.maxTokenStaleness = maxTokenStaleness;
     }
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtUtil, userDetailsService);
+        return new JwtAuthenticationFilter(jwtUtil, userDetailsService, revocationStore, statelessAuthentication, maxTokenStaleness);
     }
 
     @Bean
@@ -32,14 +47,17 @@ public class SecurityConfig {
     }
 
     @Bean 
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, RateLimiter rateLimiter, ObjectMapper objectMapper) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             // Allow H2 console to render its frames
             .headers(headers -> headers.frameOptions(frame -> frame.sameOrigin()))
             .authorizeHttpRequests(auth -> auth
+                // async dispatches (streamed responses) belong to a request that was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers(
                     "/api/v1/auth/**",
+                    "/.well-known/jwks.json",
                     "/api/v1/docs",
                     "/v3/api-docs/**",
                     "/swagger-ui/**",
@@ -49,7 +67,9 @@ public class SecurityConfig {
                 ).permitAll()
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class)
+            // throttle auth endpoints before any token parsing or password hashing
+            .addFilterBefore(new RateLimitFilter(rateLimiter, objectMapper), JwtAuthenticationFilter.class);
         return http.build();
     }
 }
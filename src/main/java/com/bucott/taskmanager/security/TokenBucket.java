@@ -0,0 +1,25 @@
+package com.bucott.taskmanager.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lock-free token bucket in GCRA form: the whole state is one "theoretical arrival time",
+// advanced with a single CAS per admitted request. A bucket whose arrival time is in the
+// past is full, which is also what makes it safe to evict once idle.
+final class TokenBucket {
+    private final AtomicLong theoreticalArrival = new AtomicLong();
+
+    // Returns 0 if a token was taken, otherwise the nanoseconds until one becomes available
+    long tryAcquire(long now, long intervalNanos, long burstNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, now) + intervalNanos;
+            long overshoot = next - now - burstNanos;
+            if (overshoot > 0) {
+                return overshoot;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.bucott.taskmanager.security;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.bucott.taskmanager.config.TokenRevocationProperties;
+import com.bucott.taskmanager.util.ParsedToken;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Denylist of revoked token ids (jti), checked on every authenticated request.
+// Ids are grouped into buckets by the expiry of their token, so a lookup goes straight to the one bucket
+// the token's expiry falls in, tests that bucket's Bloom filter and only on a possible hit consults its
+// exact set; the usual "not revoked" answer is a map lookup and a few bit tests. A bucket's filter doubles
+// whenever it holds more than BLOOM_BITS_PER_ID bits per id, keeping false positives near 0.5% at any
+// volume instead of saturating and sending every lookup to the set. Once every token in a
+// bucket has expired the whole bucket is dropped, since signature verification rejects those tokens anyway.
+// Revocations are appended to a local file and forced to disk before they take effect, so they survive a
+// power loss as well as a crash, and are replayed on startup; the file is rewritten without the expired
+// entries whenever buckets are dropped.
+@Component
+public class TokenRevocationStore implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationStore.class);
+    private static final int BLOOM_PROBES = 3;
+    // with 3 probes, at most 16 bits per id is a false-positive rate of at most (1 - e^(-3/16))^3, about 0.5%
+    static final int BLOOM_BITS_PER_ID = 16;
+
+    private final ConcurrentMap<Long, Bucket> buckets = new ConcurrentHashMap<>();
+    private final long bucketSeconds;
+    private final int bloomBits;
+    private final Path file;
+    // serialises appends, compaction and the in-memory adds they must stay consistent with; held across
+    // file I/O, so a lock rather than a monitor, which would pin a virtual thread's carrier
+    private final ReentrantLock fileLock = new ReentrantLock();
+    private FileChannel channel;
+
+    public TokenRevocationStore(TokenRevocationProperties properties, MeterRegistry meterRegistry) {
+        this.bucketSeconds = Math.max(1, properties.bucketWidth().toSeconds());
+        // initial filter size per bucket, a power of two that grows with the bucket
+        this.bloomBits = Integer.highestOneBit(Math.max(Long.SIZE, properties.bloomBits()));
+        this.file = properties.file() == null || properties.file().isBlank() ? null : Path.of(properties.file());
+        replay(Instant.now());
+
+        Gauge.builder("token.revocations", this, TokenRevocationStore::size)
+                .description("Revoked tokens that have not expired yet")
+                .register(meterRegistry);
+        Gauge.builder("token.revocations.buckets", buckets, Map::size)
+                .description("Expiry buckets holding revoked tokens")
+                .register(meterRegistry);
+    }
+
+    public boolean isRevoked(ParsedToken token) {
+        if (token.tokenId() == null) {
+            // issued before tokens carried an id; only expiry ends them
+            return false;
+        }
+        Bucket bucket = buckets.get(bucketOf(token.expiresAt().getEpochSecond()));
+        return bucket != null && bucket.contains(token.tokenId());
+    }
+
+    public boolean revoke(ParsedToken token) {
+        return token.tokenId() != null && revoke(token.tokenId(), token.expiresAt());
+    }
+
+    // Returns false when the token has already expired and needs no entry
+    public boolean revoke(String tokenId, Instant expiresAt) {
+        long expiry = expiresAt.getEpochSecond();
+        if (expiry <= Instant.now().getEpochSecond()) {
+            return false;
+        }
+        fileLock.lock();
+        try {
+            append(tokenId, expiry);
+            add(tokenId, expiry);
+        } finally {
+            fileLock.unlock();
+        }
+        return true;
+    }
+
+    // Bloom filter answer alone, which the exact set would have to settle; exposed for tests
+    boolean mightBeRevoked(String tokenId, Instant expiresAt) {
+        Bucket bucket = buckets.get(bucketOf(expiresAt.getEpochSecond()));
+        return bucket != null && bucket.filter.mightContain(Bucket.hash(tokenId));
+    }
+
+    public long size() {
+        long size = 0;
+        for (Bucket bucket : buckets.values()) {
+            size += bucket.expiries.size();
+        }
+        return size;
+    }
+
+    @Scheduled(fixedDelayString = "${token-revocation.sweep-interval:1m}")
+    public void sweep() {
+        sweep(Instant.now());
+    }
+
+    void sweep(Instant now) {
+        // a bucket only holds tokens that expire before the next one starts, so all below the current one are done
+        long current = bucketOf(now.getEpochSecond());
+        if (buckets.keySet().removeIf(index -> index < current)) {
+            compact();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        fileLock.lock();
+        try {
+            closeChannel();
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    private long bucketOf(long expiresAt) {
+        return Math.floorDiv(expiresAt, bucketSeconds);
+    }
+
+    private void add(String tokenId, long expiresAt) {
+        buckets.computeIfAbsent(bucketOf(expiresAt), index -> new Bucket(bloomBits)).add(tokenId, expiresAt);
+    }
+
+    private void replay(Instant now) {
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        // expired and torn lines are left out by rewriting the file, so later appends start on a clean line
+        int dropped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int space = line.indexOf(' ');
+                if (space <= 0 || space == line.length() - 1) {
+                    // torn final write from a crash
+                    dropped++;
+                    continue;
+                }
+                long expiresAt;
+                try {
+                    expiresAt = Long.parseLong(line, 0, space, 10);
+                } catch (NumberFormatException e) {
+                    dropped++;
+                    continue;
+                }
+                if (expiresAt <= now.getEpochSecond()) {
+                    dropped++;
+                    continue;
+                }
+                add(line.substring(space + 1), expiresAt);
+            }
+        } catch (IOException e) {
+            // starting without the list would quietly un-revoke every token in it
+            throw new UncheckedIOException("Cannot read revoked tokens from " + file, e);
+        }
+        logger.info("Loaded {} revoked tokens from {}", size(), file);
+        if (dropped > 0) {
+            compact();
+        }
+    }
+
+    private void append(String tokenId, long expiresAt) {
+        if (file == null) {
+            return;
+        }
+        try {
+            if (channel == null) {
+                if (file.getParent() != null) {
+                    Files.createDirectories(file.getParent());
+                }
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+            }
+            ByteBuffer line = ByteBuffer.wrap((expiresAt + " " + tokenId + "\n").getBytes(StandardCharsets.UTF_8));
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+            // a flush alone only reaches the page cache; logouts are rare enough to sync each one
+            channel.force(false);
+        } catch (IOException e) {
+            // the revocation still holds in memory; only a restart would lose it
+            logger.error("Could not record revoked token in {}: {}", file, e.getMessage());
+            closeChannel();
+        }
+    }
+
+    private void compact() {
+        if (file == null) {
+            return;
+        }
+        fileLock.lock();
+        try {
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try {
+                try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+                        Writer writer = Channels.newWriter(out, StandardCharsets.UTF_8)) {
+                    for (Bucket bucket : buckets.values()) {
+                        for (Map.Entry<String, Long> entry : bucket.expiries.entrySet()) {
+                            writer.write(entry.getValue() + " " + entry.getKey() + "\n");
+                        }
+                    }
+                    writer.flush();
+                    // on disk before it replaces the log, or a power loss could leave an empty file behind
+                    out.force(false);
+                }
+                closeChannel();
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                logger.warn("Could not compact {}: {}", file, e.getMessage());
+            }
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Could not close {}: {}", file, e.getMessage());
+        }
+        channel = null;
+    }
+
+    private static final class Bucket {
+        private final Map<String, Long> expiries = new ConcurrentHashMap<>();
+        // replaced by a larger one as ids are added; readers always see a complete filter
+        private volatile BloomFilter filter;
+
+        Bucket(int bits) {
+            this.filter = new BloomFilter(bits);
+        }
+
+        // Adds are serialised by the store's fileLock. The exact set is filled first, so a reader that sees
+        // the bits also finds the id; a grown filter is built from the set and only then published.
+        void add(String tokenId, long expiresAt) {
+            expiries.put(tokenId, expiresAt);
+            BloomFilter current = filter;
+            if ((long) expiries.size() * BLOOM_BITS_PER_ID <= current.bits()) {
+                current.add(hash(tokenId));
+                return;
+            }
+            int bits = current.bits();
+            while ((long) expiries.size() * BLOOM_BITS_PER_ID > bits && bits < Integer.highestOneBit(Integer.MAX_VALUE)) {
+                bits <<= 1;
+            }
+            BloomFilter grown = new BloomFilter(bits);
+            for (String id : expiries.keySet()) {
+                grown.add(hash(id));
+            }
+            filter = grown;
+        }
+
+        boolean contains(String tokenId) {
+            return filter.mightContain(hash(tokenId)) && expiries.containsKey(tokenId);
+        }
+
+        // 64-bit FNV-1a over the whole id, finished with the murmur3 mix. String.hashCode would give ids that
+        // share its 32 bits the same probes, so those could never be told apart without the exact set.
+        static long hash(String id) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < id.length(); i++) {
+                h = (h ^ id.charAt(i)) * 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+
+    private static final class BloomFilter {
+        private final AtomicLongArray words;
+        private final int mask;
+
+        // bits is a power of two, so probes are masked rather than divided
+        BloomFilter(int bits) {
+            this.words = new AtomicLongArray(bits / Long.SIZE);
+            this.mask = bits - 1;
+        }
+
+        int bits() {
+            return mask + 1;
+        }
+
+        void add(long hash) {
+            for (int probe = 0; probe < BLOOM_PROBES; probe++) {
+                int bit = bit(hash, probe);
+                long flag = 1L << bit;
+                words.getAndUpdate(bit >>> 6, word -> word | flag);
+            }
+        }
+
+        boolean mightContain(long hash) {
+            for (int probe = 0; probe < BLOOM_PROBES; probe++) {
+                int bit = bit(hash, probe);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // double hashing: the two halves of one 64-bit mix stand in for independent hash functions
+        private int bit(long hash, int probe) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            return (h1 + probe * h2) & mask;
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.bucott.taskmanager.service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.bucott.taskmanager.config.EventStreamProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Per-user Server-Sent Events feed.
+// Connections are async servlet responses, not threads: each has a bounded queue that is drained by a
+// short-lived virtual thread only while there is something to send. A consumer whose queue fills up
+// is disconnected and can resume from the replay log. Every event is also appended to a bounded
+// in-memory ring, so a reconnect with Last-Event-ID replays what was missed while it is still retained.
+@Service
+public class EventStreamService implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(EventStreamService.class);
+
+    public static final String TASK_CREATED = "task.created";
+    public static final String TASK_UPDATED = "task.updated";
+    public static final String TASK_DELETED = "task.deleted";
+    public static final String SESSION_EXPIRING = "session.expiring";
+    public static final String SESSION_EXPIRED = "session.expired";
+    // tells the client its Last-Event-ID can no longer be replayed, so it should refetch its state
+    public static final String RESET = "reset";
+
+    private record LoggedEvent(long sequence, Long userId, String name, Object data) {
+    }
+
+    private final EventStreamProperties properties;
+    // event ids are "<epoch>-<sequence>", so ids from before a restart are recognised as unreplayable
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final LoggedEvent[] log;
+    private long nextSequence = 1;
+    // guards the log and the connection registry, so a replay and a live event can never interleave
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, Deque<Connection>> connections = new HashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicInteger bufferedEvents = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService ticker;
+    private final Counter publishedCounter;
+    private final Counter droppedCounter;
+
+    public EventStreamService(EventStreamProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.log = new LoggedEvent[properties.logSize()];
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-stream-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.heartbeatInterval().toMillis();
+        ticker.scheduleWithFixedDelay(this::tick, interval, interval, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("events.connections", connectionCount, AtomicInteger::get)
+                .description("Open event stream connections")
+                .register(meterRegistry);
+        Gauge.builder("events.buffer.occupancy", bufferedEvents, AtomicInteger::get)
+                .description("Events queued for delivery, summed over all connections")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("events.published")
+                .description("Events appended to the change feed")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("events.dropped")
+                .description("Connections closed because the consumer fell a full buffer behind")
+                .register(meterRegistry);
+    }
+
+    // sessionExpiresAt may be null when the session lifetime is unknown
+    public SseEmitter open(Long userId, Instant sessionExpiresAt, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(properties.connectionTimeout().toMillis());
+        Connection connection = new Connection(userId, emitter, sessionExpiresAt);
+        emitter.onCompletion(connection::close);
+        emitter.onTimeout(connection::close);
+        emitter.onError(error -> connection.close());
+
+        Connection evicted = null;
+        lock.lock();
+        try {
+            Deque<Connection> userConnections = connections.computeIfAbsent(userId, id -> new ArrayDeque<>());
+            if (userConnections.size() >= properties.maxConnectionsPerUser()) {
+                // most likely a tab that went away without the socket being noticed yet
+                evicted = userConnections.peekFirst();
+            }
+            connection.enqueue(SseEmitter.event().comment("connected"));
+            replay(connection, lastEventId);
+            userConnections.addLast(connection);
+            connectionCount.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+        if (evicted != null) {
+            evicted.close();
+        }
+        return emitter;
+    }
+
+    public void publish(Long userId, String name, Object data) {
+        lock.lock();
+        try {
+            LoggedEvent event = new LoggedEvent(nextSequence++, userId, name, data);
+            log[(int) (event.sequence() % log.length)] = event;
+            publishedCounter.increment();
+            Deque<Connection> userConnections = connections.get(userId);
+            if (userConnections != null) {
+                for (Connection connection : userConnections) {
+                    connection.enqueue(toSse(event));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> publish(event.ownerId(), TASK_CREATED, event.task());
+            case UPDATED -> publish(event.ownerId(), TASK_UPDATED, event.task());
+            case DELETED -> publish(event.ownerId(), TASK_DELETED, Map.of("id", event.taskId()));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        ticker.shutdownNow();
+        for (Connection connection : allConnections()) {
+            connection.close();
+        }
+        senders.shutdown();
+    }
+
+    // Must be called with the lock held
+    private void replay(Connection connection, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return;
+        }
+        long oldestRetained = Math.max(1, nextSequence - log.length);
+        long after = parseSequence(lastEventId);
+        if (after < 0 || after + 1 < oldestRetained || after >= nextSequence) {
+            connection.enqueue(SseEmitter.event()
+                    .name(RESET)
+                    .data(Map.of("reason", "Missed events are no longer available"), MediaType.APPLICATION_JSON));
+            return;
+        }
+        List<LoggedEvent> missed = new ArrayList<>();
+        for (long sequence = after + 1; sequence < nextSequence; sequence++) {
+            LoggedEvent event = log[(int) (sequence % log.length)];
+            if (event.userId().equals(connection.userId)) {
+                missed.add(event);
+            }
+        }
+        // a replay that cannot fit the buffer would only get the connection dropped again
+        if (missed.size() >= properties.bufferSize()) {
+            connection.enqueue(SseEmitter.event()
+                    .name(RESET)
+                    .data(Map.of("reason", "Too many missed events to replay"), MediaType.APPLICATION_JSON));
+            return;
+        }
+        missed.forEach(event -> connection.enqueue(toSse(event)));
+    }
+
+    private long parseSequence(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private SseEmitter.SseEventBuilder toSse(LoggedEvent event) {
+        return SseEmitter.event()
+                .id(epoch + "-" + event.sequence())
+                .name(event.name())
+                .data(event.data(), MediaType.APPLICATION_JSON);
+    }
+
+    // Heartbeats keep proxies from closing idle streams; session notices let the client re-authenticate in time
+    private void tick() {
+        try {
+            Instant now = Instant.now();
+            for (Connection connection : allConnections()) {
+                if (connection.sessionExpiresAt != null && !now.isBefore(connection.sessionExpiresAt)) {
+                    connection.enqueue(SseEmitter.event().name(SESSION_EXPIRED)
+                            .data(Map.of("expiresAt", connection.sessionExpiresAt), MediaType.APPLICATION_JSON));
+                    connection.completeAfterDrain();
+                } else if (connection.sessionExpiresAt != null && !connection.warned
+                        && !now.isBefore(connection.sessionExpiresAt.minus(properties.sessionExpiryWarning()))) {
+                    connection.warned = true;
+                    connection.enqueue(SseEmitter.event().name(SESSION_EXPIRING)
+                            .data(Map.of("expiresAt", connection.sessionExpiresAt), MediaType.APPLICATION_JSON));
+                } else {
+                    connection.enqueue(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Event stream heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    private List<Connection> allConnections() {
+        lock.lock();
+        try {
+            List<Connection> all = new ArrayList<>(connectionCount.get());
+            connections.values().forEach(all::addAll);
+            return all;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private final class Connection {
+        final Long userId;
+        final SseEmitter emitter;
+        final Instant sessionExpiresAt;
+        volatile boolean warned;
+        private final ArrayBlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean completeWhenDrained;
+
+        Connection(Long userId, SseEmitter emitter, Instant sessionExpiresAt) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.sessionExpiresAt = sessionExpiresAt;
+            this.queue = new ArrayBlockingQueue<>(properties.bufferSize());
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                droppedCounter.increment();
+                logger.debug("Dropping slow event stream consumer for user {}", userId);
+                close();
+                return;
+            }
+            bufferedEvents.incrementAndGet();
+            scheduleDrain();
+        }
+
+        void completeAfterDrain() {
+            completeWhenDrained = true;
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RuntimeException e) {
+                    // executor shut down
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    bufferedEvents.decrementAndGet();
+                    emitter.send(event);
+                }
+                if (completeWhenDrained) {
+                    close();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // client went away or the emitter already completed
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // an event may have arrived after the last poll but before draining was cleared
+            if (!closed.get() && (!queue.isEmpty() || completeWhenDrained)) {
+                scheduleDrain();
+            }
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            lock.lock();
+            try {
+                Deque<Connection> userConnections = connections.get(userId);
+                if (userConnections != null && userConnections.remove(this)) {
+                    connectionCount.decrementAndGet();
+                    if (userConnections.isEmpty()) {
+                        connections.remove(userId);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            while (queue.poll() != null) {
+                bufferedEvents.decrementAndGet();
+            }
+            try {
+                emitter.complete();
+            } catch (RuntimeException e) {
+                // already completed
+            }
+        }
+    }
+}
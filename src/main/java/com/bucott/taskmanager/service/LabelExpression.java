@@ -0,0 +1,175 @@
+package com.bucott.taskmanager.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import com.bucott.taskmanager.exception.InvalidInputException;
+
+// Boolean filter over task labels, e.g. "bug AND urgent AND NOT blocked" or "(bug OR incident) AND NOT wontfix".
+// NOT binds tighter than AND, AND tighter than OR. Operators are case-insensitive; labels are lowercased.
+public sealed interface LabelExpression {
+    int MAX_TERMS = 32;
+    int MAX_TOKENS = 256;
+
+    record Label(String name) implements LabelExpression {
+    }
+
+    record Not(LabelExpression operand) implements LabelExpression {
+    }
+
+    record And(List<LabelExpression> operands) implements LabelExpression {
+    }
+
+    record Or(List<LabelExpression> operands) implements LabelExpression {
+    }
+
+    // Evaluates to the set of matching task ids. universe is every task the expression ranges over,
+    // labelled looks up a label's bitmap (null if no task carries it). Inputs are never modified.
+    default Roaring64Bitmap evaluate(Roaring64Bitmap universe, Function<String, Roaring64Bitmap> labelled) {
+        return switch (this) {
+            case Label label -> {
+                Roaring64Bitmap bitmap = labelled.apply(label.name());
+                yield bitmap == null ? new Roaring64Bitmap() : bitmap.clone();
+            }
+            case Not not -> Roaring64Bitmap.andNot(universe, not.operand().evaluate(universe, labelled));
+            case And and -> {
+                // intersect the positive operands first, then subtract the negated ones without materializing NOT
+                Roaring64Bitmap result = null;
+                List<LabelExpression> negated = new ArrayList<>();
+                for (LabelExpression operand : and.operands()) {
+                    if (operand instanceof Not not) {
+                        negated.add(not.operand());
+                    } else if (result == null) {
+                        result = operand.evaluate(universe, labelled);
+                    } else {
+                        result.and(operand.evaluate(universe, labelled));
+                    }
+                }
+                if (result == null) {
+                    result = universe.clone();
+                }
+                for (LabelExpression operand : negated) {
+                    if (result.isEmpty()) {
+                        break;
+                    }
+                    result.andNot(operand.evaluate(universe, labelled));
+                }
+                yield result;
+            }
+            case Or or -> {
+                Roaring64Bitmap result = new Roaring64Bitmap();
+                for (LabelExpression operand : or.operands()) {
+                    result.or(operand.evaluate(universe, labelled));
+                }
+                yield result;
+            }
+        };
+    }
+
+    static LabelExpression parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new InvalidInputException("Label expression must not be empty");
+        }
+        return new Parser(expression).parse();
+    }
+
+    final class Parser {
+        private final List<String> tokens = new ArrayList<>();
+        private int position;
+        private int terms;
+
+        private Parser(String expression) {
+            int i = 0;
+            while (i < expression.length()) {
+                char c = expression.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '(' || c == ')') {
+                    tokens.add(String.valueOf(c));
+                    i++;
+                } else {
+                    int start = i;
+                    while (i < expression.length() && !Character.isWhitespace(expression.charAt(i))
+                            && expression.charAt(i) != '(' && expression.charAt(i) != ')') {
+                        i++;
+                    }
+                    tokens.add(expression.substring(start, i));
+                }
+                // also bounds the parser's recursion depth
+                if (tokens.size() > MAX_TOKENS) {
+                    throw invalid("expression is too long");
+                }
+            }
+        }
+
+        private LabelExpression parse() {
+            LabelExpression expression = or();
+            if (position < tokens.size()) {
+                throw invalid("unexpected '" + tokens.get(position) + "'");
+            }
+            return expression;
+        }
+
+        private LabelExpression or() {
+            List<LabelExpression> operands = new ArrayList<>(List.of(and()));
+            while (accept("OR")) {
+                operands.add(and());
+            }
+            return operands.size() == 1 ? operands.get(0) : new Or(List.copyOf(operands));
+        }
+
+        private LabelExpression and() {
+            List<LabelExpression> operands = new ArrayList<>(List.of(not()));
+            while (accept("AND")) {
+                operands.add(not());
+            }
+            return operands.size() == 1 ? operands.get(0) : new And(List.copyOf(operands));
+        }
+
+        private LabelExpression not() {
+            if (accept("NOT")) {
+                return new Not(not());
+            }
+            if (accept("(")) {
+                LabelExpression inner = or();
+                if (!accept(")")) {
+                    throw invalid("missing ')'");
+                }
+                return inner;
+            }
+            if (position >= tokens.size()) {
+                throw invalid("expected a label");
+            }
+            String token = tokens.get(position);
+            if (token.equals(")") || isOperator(token)) {
+                throw invalid("expected a label but found '" + token + "'");
+            }
+            position++;
+            if (++terms > MAX_TERMS) {
+                throw invalid("at most " + MAX_TERMS + " labels are allowed");
+            }
+            return new Label(TaskService.normalizeLabel(token));
+        }
+
+        private boolean accept(String expected) {
+            if (position < tokens.size() && tokens.get(position).equalsIgnoreCase(expected)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private static boolean isOperator(String token) {
+            String upper = token.toUpperCase(Locale.ROOT);
+            return upper.equals("AND") || upper.equals("OR") || upper.equals("NOT");
+        }
+
+        private static InvalidInputException invalid(String reason) {
+            return new InvalidInputException("Invalid label expression: " + reason);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.bucott.taskmanager.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Default notifier: logs each reminder and keeps the most recent ones in memory, which is enough
+// for development and for tests to observe what fired
+public class LoggingReminderNotifier implements ReminderNotifier {
+    private static final Logger logger = LoggerFactory.getLogger(LoggingReminderNotifier.class);
+
+    private final int capacity;
+    private final Deque<Reminder> recent;
+
+    public LoggingReminderNotifier(int capacity) {
+        this.capacity = capacity;
+        this.recent = new ArrayDeque<>(capacity);
+    }
+
+    @Override
+    public void notify(Reminder reminder) {
+        logger.info("Reminder for task {} of user {} due {}", reminder.taskId(), reminder.ownerId(), reminder.dueDate());
+        synchronized (recent) {
+            if (recent.size() == capacity) {
+                recent.removeFirst();
+            }
+            recent.addLast(reminder);
+        }
+    }
+
+    public List<Reminder> recent() {
+        synchronized (recent) {
+            return List.copyOf(recent);
+        }
+    }
+}
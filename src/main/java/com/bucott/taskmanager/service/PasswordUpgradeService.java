@@ -0,0 +1,48 @@
+package com.bucott.taskmanager.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.bucott.taskmanager.exception.TooManyRequestsException;
+import com.bucott.taskmanager.repository.UserRepository;
+
+// Rehashes passwords stored with an outdated algorithm or cost after a successful login,
+// outside the request that triggered it
+@Service
+public class PasswordUpgradeService {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordUpgradeService.class);
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
+
+    public PasswordUpgradeService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+            UserDetailsCache userDetailsCache) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.userDetailsCache = userDetailsCache;
+    }
+
+    public boolean needsUpgrade(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    @Async
+    public void upgrade(String username, String email, String rawPassword, String oldHash) {
+        try {
+            String newHash = passwordEncoder.encode(rawPassword);
+            if (userRepository.updatePasswordHash(username, oldHash, newHash) == 1) {
+                userDetailsCache.invalidate(username, email);
+                logger.debug("Upgraded password hash for user: {}", username);
+            }
+        } catch (TooManyRequestsException e) {
+            // hashing pool is saturated; the next login will try again
+            logger.debug("Skipped password hash upgrade for user {}: {}", username, e.getMessage());
+        } catch (Exception e) {
+            logger.warn("Password hash upgrade failed for user {}: {}", username, e.getMessage());
+        }
+    }
+}
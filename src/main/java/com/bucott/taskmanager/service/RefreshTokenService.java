@@ -0,0 +1,180 @@
+package com.bucott.taskmanager.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bucott.taskmanager.exception.AuthException;
+import com.bucott.taskmanager.model.RefreshToken;
+import com.bucott.taskmanager.repository.RefreshTokenRepository;
+import com.bucott.taskmanager.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Long-lived refresh tokens behind POST /api/v1/auth/refresh, rotated on every use.
+// Tokens are 256 random bits and only their SHA-256 is stored: with that much entropy a fast unsalted
+// hash is as safe as a slow one, and validating a token is a single unique-index lookup.
+// A token presented after it was rotated means two parties hold it, so its whole family is revoked.
+@Service
+public class RefreshTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final int TOKEN_BYTES = 32;
+
+    public record IssuedRefreshToken(String value, Instant expiresAt) {
+    }
+
+    public record Rotation(UserCredentials user, IssuedRefreshToken refreshToken) {
+    }
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transaction;
+    private final SecureRandom random = new SecureRandom();
+    private final Duration ttl;
+    private final Duration maxFamilyAge;
+    private final int purgeBatchSize;
+    private final Counter reuseDetected;
+    private final Counter purged;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${refresh-tokens.ttl:7d}") Duration ttl,
+            @Value("${refresh-tokens.max-family-age:30d}") Duration maxFamilyAge,
+            @Value("${refresh-tokens.purge-batch-size:500}") int purgeBatchSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.maxFamilyAge = maxFamilyAge;
+        this.purgeBatchSize = Math.max(1, purgeBatchSize);
+        this.reuseDetected = Counter.builder("auth.refresh.reuse")
+                .description("Rotated refresh tokens presented again, each revoking its family")
+                .register(meterRegistry);
+        this.purged = Counter.builder("auth.refresh.purged")
+                .description("Refresh token rows deleted with their expired or revoked family")
+                .register(meterRegistry);
+    }
+
+    // Starts a new family, one per login
+    @Transactional
+    public IssuedRefreshToken issue(Long userId, long securityVersion) {
+        Instant now = Instant.now();
+        return save(UUID.randomUUID().toString(), userId, securityVersion, now, now.plus(maxFamilyAge));
+    }
+
+    // Exchanges a refresh token for its successor. A family revoked here stays revoked, hence no rollback.
+    @Transactional(noRollbackFor = AuthException.class)
+    public Rotation rotate(String presented) {
+        if (presented == null || presented.isBlank()) {
+            throw new AuthException("Refresh token is required");
+        }
+        Instant now = Instant.now();
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(presented))
+                .orElseThrow(() -> new AuthException("Invalid refresh token"));
+        if (current.isRevoked() || !current.getFamilyExpiresAt().isAfter(now)) {
+            throw new AuthException("Refresh token has been revoked");
+        }
+        if (current.isUsed()) {
+            throw reuse(current, now);
+        }
+        if (!current.getExpiresAt().isAfter(now)) {
+            throw new AuthException("Refresh token has expired");
+        }
+        if (refreshTokenRepository.markUsed(current.getId()) == 0) {
+            // lost the race to a concurrent refresh with the same token
+            throw reuse(current, now);
+        }
+
+        UserCredentials user = UserCredentials.fromRows(userRepository.findAuthViewsById(current.getUserId()))
+                .filter(found -> found.securityVersion() == current.getSecurityVersion())
+                .orElse(null);
+        if (user == null) {
+            // user removed, or password or roles changed since login
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            throw new AuthException("Refresh token is no longer valid");
+        }
+        IssuedRefreshToken next = save(current.getFamilyId(), user.id(), user.securityVersion(), now,
+                current.getFamilyExpiresAt());
+        return new Rotation(user, next);
+    }
+
+    // Ends the family the token belongs to, as on logout; unknown tokens are ignored
+    @Transactional
+    public void revoke(String presented) {
+        if (presented == null || presented.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHash(hash(presented))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), Instant.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${refresh-tokens.sweep-interval:10m}",
+            initialDelayString = "${refresh-tokens.sweep-interval:10m}")
+    public void purgeExpired() {
+        int deleted = purgeExpired(Instant.now());
+        if (deleted > 0) {
+            logger.debug("Purged {} refresh tokens", deleted);
+        }
+    }
+
+    // One short transaction per batch, so the sweep never holds locks on many rows at once
+    public int purgeExpired(Instant now) {
+        int total = 0;
+        while (true) {
+            Integer deleted = transaction.execute(status -> {
+                List<Long> ids = refreshTokenRepository.findIdsOfExpiredFamilies(now, Limit.of(purgeBatchSize));
+                return ids.isEmpty() ? 0 : refreshTokenRepository.deleteByIdIn(ids);
+            });
+            total += deleted;
+            if (deleted < purgeBatchSize) {
+                purged.increment(total);
+                return total;
+            }
+        }
+    }
+
+    private AuthException reuse(RefreshToken token, Instant now) {
+        refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+        reuseDetected.increment();
+        logger.warn("Refresh token reuse for user {}, family revoked", token.getUserId());
+        return new AuthException("Refresh token has already been used");
+    }
+
+    private IssuedRefreshToken save(String familyId, Long userId, long securityVersion, Instant now,
+            Instant familyExpiresAt) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String value = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Instant expiresAt = now.plus(ttl).isBefore(familyExpiresAt) ? now.plus(ttl) : familyExpiresAt;
+        refreshTokenRepository.save(new RefreshToken(hash(value), familyId, userId, securityVersion, expiresAt,
+                familyExpiresAt));
+        return new IssuedRefreshToken(value, expiresAt);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
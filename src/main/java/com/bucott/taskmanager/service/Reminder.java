@@ -0,0 +1,7 @@
+package com.bucott.taskmanager.service;
+
+import java.time.Instant;
+
+// A due-date reminder as handed to a ReminderNotifier; remindAt is when it was scheduled to fire
+public record Reminder(Long taskId, Long ownerId, String title, Instant dueDate, Instant remindAt) {
+}
@@ -0,0 +1,7 @@
+package com.bucott.taskmanager.service;
+
+// Delivers fired reminders. Called from the reminder thread, so implementations should hand slow
+// work (mail, push) off rather than block it; an exception is counted and the reminder is not retried.
+public interface ReminderNotifier {
+    void notify(Reminder reminder);
+}
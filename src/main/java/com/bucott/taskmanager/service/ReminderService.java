@@ -0,0 +1,352 @@
+package com.bucott.taskmanager.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bucott.taskmanager.config.ReminderProperties;
+import com.bucott.taskmanager.dto.task.TaskDTO;
+import com.bucott.taskmanager.model.ReminderCheckpoint;
+import com.bucott.taskmanager.model.TaskStatus;
+import com.bucott.taskmanager.repository.ReminderCheckpointRepository;
+import com.bucott.taskmanager.repository.TaskReminderView;
+import com.bucott.taskmanager.repository.TaskRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Fires a reminder lead-time before each unfinished task's due date.
+//
+// Only reminders due within load-window are held in memory, in a hierarchical timing wheel; a loader
+// pages further ones in from the database by (due_date, id) as time moves on, and never holds more
+// than max-pending. Committed task changes cancel and reschedule in O(1) if they fall inside what
+// has been loaded, and are otherwise left for the loader to find. Each reminder is re-read when it
+// fires, so one made stale by a missed or racing change is dropped rather than sent.
+//
+// How far reminders have been delivered is checkpointed; after a restart everything between the
+// checkpoint (at most catch-up-window ago) and now is sent first. Delivery is at least once.
+@Component
+public class ReminderService implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(ReminderService.class);
+    private static final long SHUTDOWN_GRACE_SECONDS = 5;
+
+    private final ReminderProperties properties;
+    private final TaskRepository taskRepository;
+    private final ReminderCheckpointRepository checkpointRepository;
+    private final List<ReminderNotifier> notifiers;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate transaction;
+    private final long tickMillis;
+    private final long leadMillis;
+    private final ScheduledExecutorService ticker;
+
+    // guards the wheel, the loader position and the deferred events
+    private final ReentrantLock lock = new ReentrantLock();
+    private TimingWheel<Long> wheel;
+    // every reminder up to this (due date, id) keyset position has been offered to the wheel
+    private long loadedDue;
+    private long loadedId;
+    private boolean loading;
+    // changes that arrive while a page is being read are applied on top of it afterwards
+    private final List<TaskChangedEvent> deferred = new ArrayList<>();
+    // every reminder due to fire at or before this has been taken off the wheel
+    private volatile long firedThrough;
+    // and this far they have also been delivered; only this is checkpointed, so a shutdown in the
+    // middle of a delivery re-sends the batch after the restart rather than losing it
+    private volatile long deliveredThrough;
+    private long lastCheckpoint;
+
+    private final Timer lagTimer;
+    private final Counter firedCounter;
+    private final Counter staleCounter;
+    private final Counter failedCounter;
+
+    public ReminderService(ReminderProperties properties, TaskRepository taskRepository,
+            ReminderCheckpointRepository checkpointRepository, List<ReminderNotifier> notifiers,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.taskRepository = taskRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.notifiers = List.copyOf(notifiers);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.tickMillis = Math.max(1, properties.tick().toMillis());
+        this.leadMillis = properties.leadTime().toMillis();
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reminder-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("reminders.pending", this, ReminderService::pendingCount)
+                .description("Reminders scheduled in the timing wheel")
+                .register(meterRegistry);
+        Gauge.builder("reminders.delivery.lag", this, service -> service.deliveryLagMillis() / 1000.0)
+                .description("How far delivery trails the clock; grows while catching up or when the wheel stalls")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("reminders.lag")
+                .description("Delay between when a reminder was due to fire and when it was delivered")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.firedCounter = Counter.builder("reminders.fired")
+                .description("Reminders handed to the notifiers")
+                .register(meterRegistry);
+        this.staleCounter = Counter.builder("reminders.stale")
+                .description("Reminders dropped at fire time because the task was done, deleted or rescheduled")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("reminders.failed")
+                .description("Notifier calls that threw")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long earliest = now - properties.catchUpWindow().toMillis();
+        // on a first start there is nothing to catch up on
+        long from = readOnlyTransaction.execute(tx -> checkpointRepository.findById(ReminderCheckpoint.ID))
+                .map(checkpoint -> Math.max(checkpoint.getFiredThrough().toEpochMilli(), earliest))
+                .orElse(now);
+
+        lock.lock();
+        try {
+            wheel = new TimingWheel<>(Math.floorDiv(now, tickMillis));
+            firedThrough = from;
+            deliveredThrough = from;
+            lastCheckpoint = now;
+            loadedDue = from + leadMillis;
+            loadedId = Long.MAX_VALUE;
+        } finally {
+            lock.unlock();
+        }
+        if (from < now) {
+            logger.info("Catching up on reminders since {}", Instant.ofEpochMilli(from));
+        }
+        ticker.scheduleAtFixedRate(this::tick, 0, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        lock.lock();
+        try {
+            if (wheel == null) {
+                return;
+            }
+            if (loading) {
+                deferred.add(event);
+                return;
+            }
+            apply(event);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        // let a delivery in progress finish so the last checkpoint covers it; if it does not, the
+        // checkpoint stays behind it and the batch is sent again after the restart
+        ticker.shutdown();
+        try {
+            if (!ticker.awaitTermination(SHUTDOWN_GRACE_SECONDS, TimeUnit.SECONDS)) {
+                ticker.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            ticker.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        if (wheel != null) {
+            checkpoint();
+        }
+    }
+
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            List<TimingWheel.Entry<Long>> due = new ArrayList<>();
+            long through;
+            lock.lock();
+            try {
+                wheel.advanceTo(Math.floorDiv(now, tickMillis), due::add);
+                // reminders past the loader position have not been seen yet, so delivery cannot pass it
+                through = Math.min(wheel.currentTick() * tickMillis, loadedDue - leadMillis - 1);
+                firedThrough = Math.max(firedThrough, through);
+            } finally {
+                lock.unlock();
+            }
+            deliver(due, now);
+            deliveredThrough = Math.max(deliveredThrough, through);
+            load(now);
+            if (now - lastCheckpoint >= properties.checkpointInterval().toMillis()) {
+                checkpoint();
+                lastCheckpoint = now;
+            }
+        } catch (RuntimeException e) {
+            // thrown out of tick, the executor would silently cancel every later run
+            logger.warn("Reminder tick failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void deliver(List<TimingWheel.Entry<Long>> due, long now) {
+        for (int from = 0; from < due.size(); from += properties.loadBatchSize()) {
+            List<TimingWheel.Entry<Long>> batch = due.subList(from, Math.min(due.size(), from + properties.loadBatchSize()));
+            List<Long> ids = batch.stream().map(entry -> entry.id).toList();
+            Map<Long, TaskReminderView> current = readOnlyTransaction.execute(tx ->
+                    taskRepository.findRemindersByIdIn(ids).stream()
+                            .collect(Collectors.toMap(TaskReminderView::getId, Function.identity())));
+            for (TimingWheel.Entry<Long> entry : batch) {
+                TaskReminderView task = current.get(entry.id);
+                if (task == null || task.getStatus() == TaskStatus.DONE || task.getDueDate() == null
+                        || task.getDueDate().toEpochMilli() != entry.value) {
+                    staleCounter.increment();
+                    continue;
+                }
+                Reminder reminder = new Reminder(task.getId(), task.getOwnerId(), task.getTitle(), task.getDueDate(),
+                        task.getDueDate().minusMillis(leadMillis));
+                for (ReminderNotifier notifier : notifiers) {
+                    try {
+                        notifier.notify(reminder);
+                    } catch (RuntimeException e) {
+                        failedCounter.increment();
+                        logger.warn("Reminder notifier {} failed for task {}: {}",
+                                notifier.getClass().getSimpleName(), reminder.taskId(), e.getMessage());
+                    }
+                }
+                firedCounter.increment();
+                lagTimer.record(Math.max(0, now - reminder.remindAt().toEpochMilli()), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    // Pages reminders into the wheel until it holds load-window of them or is full.
+    // The lower half of the window is a margin, so the query runs once per half window rather than every tick.
+    private void load(long now) {
+        long horizon = now + leadMillis + properties.loadWindow().toMillis();
+        while (true) {
+            long afterDue;
+            long afterId;
+            int limit;
+            lock.lock();
+            try {
+                limit = Math.min(properties.loadBatchSize(), properties.maxPending() - wheel.size());
+                if (limit <= 0 || loadedDue >= horizon - properties.loadWindow().toMillis() / 2) {
+                    return;
+                }
+                afterDue = loadedDue;
+                afterId = loadedId;
+                loading = true;
+            } finally {
+                lock.unlock();
+            }
+
+            List<TaskReminderView> page = null;
+            try {
+                page = readOnlyTransaction.execute(tx -> taskRepository.findReminderWindow(
+                        Instant.ofEpochMilli(afterDue), afterId, Instant.ofEpochMilli(horizon), Limit.of(limit)));
+            } finally {
+                lock.lock();
+                try {
+                    if (page != null) {
+                        for (TaskReminderView task : page) {
+                            schedule(task.getId(), task.getDueDate().toEpochMilli());
+                        }
+                        if (page.size() < limit) {
+                            loadedDue = horizon;
+                            loadedId = 0;
+                        } else {
+                            TaskReminderView last = page.get(page.size() - 1);
+                            loadedDue = last.getDueDate().toEpochMilli();
+                            loadedId = last.getId();
+                        }
+                    }
+                    loading = false;
+                    deferred.forEach(this::apply);
+                    deferred.clear();
+                } finally {
+                    lock.unlock();
+                }
+            }
+            if (page.size() < limit) {
+                return;
+            }
+        }
+    }
+
+    // Must be called with the lock held
+    private void apply(TaskChangedEvent event) {
+        wheel.cancel(event.taskId());
+        TaskDTO task = event.task();
+        if (task == null || task.getStatus() == TaskStatus.DONE || task.getDueDate() == null) {
+            return;
+        }
+        long due = task.getDueDate().toEpochMilli();
+        if (due > loadedDue || (due == loadedDue && task.getId() > loadedId)) {
+            // not loaded that far yet; the loader will read it
+            return;
+        }
+        if (wheel.size() >= properties.maxPending()) {
+            // step the loader back so it reads this task once there is room; anything it then reads
+            // again simply replaces its own entry
+            loadedDue = due;
+            loadedId = task.getId() - 1;
+            return;
+        }
+        schedule(task.getId(), due);
+    }
+
+    // Must be called with the lock held
+    private void schedule(long taskId, long due) {
+        long remindAt = due - leadMillis;
+        if (remindAt <= firedThrough) {
+            return;
+        }
+        wheel.schedule(taskId, Math.ceilDiv(remindAt, tickMillis), due);
+    }
+
+    private void checkpoint() {
+        Instant through = Instant.ofEpochMilli(deliveredThrough);
+        try {
+            transaction.executeWithoutResult(tx -> checkpointRepository.save(new ReminderCheckpoint(ReminderCheckpoint.ID, through)));
+        } catch (RuntimeException e) {
+            logger.warn("Saving the reminder checkpoint failed: {}", e.getMessage());
+        }
+    }
+
+    private double pendingCount() {
+        lock.lock();
+        try {
+            return wheel == null ? 0 : wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long deliveryLagMillis() {
+        return wheel == null ? 0 : Math.max(0, System.currentTimeMillis() - deliveredThrough);
+    }
+}
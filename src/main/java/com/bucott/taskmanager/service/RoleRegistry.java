@@ -0,0 +1,41 @@
+package com.bucott.taskmanager.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.bucott.taskmanager.model.Authority;
+import com.bucott.taskmanager.model.Role;
+import com.bucott.taskmanager.repository.RoleRepository;
+
+import jakarta.annotation.PostConstruct;
+
+// Holds exactly one persisted Role per Authority, seeded at startup.
+// Users link to these rows instead of inserting a new role on every registration.
+@Component
+public class RoleRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(RoleRegistry.class);
+
+    private final RoleRepository roleRepository;
+    private final Role[] rolesByAuthority = new Role[Authority.values().length];
+
+    public RoleRegistry(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    @PostConstruct
+    void seed() {
+        for (Authority authority : Authority.values()) {
+            Role role = roleRepository.findByAuthority(authority);
+            if (role == null) {
+                role = roleRepository.save(new Role(authority));
+                logger.info("Seeded role {}", authority);
+            }
+            rolesByAuthority[authority.ordinal()] = role;
+        }
+    }
+
+    public Role get(Authority authority) {
+        return rolesByAuthority[authority.ordinal()];
+    }
+}
@@ -0,0 +1,155 @@
+package com.bucott.taskmanager.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bucott.taskmanager.dto.task.TaskBatchFailureDTO;
+import com.bucott.taskmanager.dto.task.TaskBatchResultDTO;
+import com.bucott.taskmanager.dto.task.TaskBatchUpdateDTO;
+import com.bucott.taskmanager.dto.task.TaskChangesDTO;
+import com.bucott.taskmanager.dto.task.TaskDTO;
+import com.bucott.taskmanager.dto.task.TaskFilterDTO;
+import com.bucott.taskmanager.exception.InvalidInputException;
+import com.bucott.taskmanager.repository.TaskRepository;
+import com.bucott.taskmanager.repository.UserRepository;
+
+// Applies one change set to many tasks with set-based UPDATEs instead of a load and save per task.
+// The ids are processed in chunks so every IN list stays bounded; per chunk that is one locking read of
+// the current rows (for the change events and the per-id report) and one UPDATE, all in one transaction.
+// The lock keeps a concurrent PUT, PATCH or DELETE from changing a row between the two, which would
+// publish events with a stale previous state and skew every listener's derived state.
+@Service
+public class TaskBatchService {
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final TaskLabelIndex taskLabelIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int maxTasks;
+
+    public TaskBatchService(TaskRepository taskRepository, UserRepository userRepository,
+            TaskLabelIndex taskLabelIndex, ApplicationEventPublisher eventPublisher,
+            @Value("${task-batch.chunk-size:500}") int chunkSize,
+            @Value("${task-batch.max-tasks:10000}") int maxTasks) {
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.taskLabelIndex = taskLabelIndex;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.maxTasks = maxTasks;
+    }
+
+    @Transactional
+    public TaskBatchResultDTO update(Long ownerId, TaskBatchUpdateDTO request) {
+        TaskChangesDTO changes = validate(request);
+        List<Long> ids = select(ownerId, request);
+
+        Instant now = Instant.now();
+        List<TaskBatchFailureDTO> failures = new ArrayList<>();
+        long updated = 0;
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + chunkSize));
+            Map<Long, TaskDTO> previous = taskRepository.findDtosForUpdateByOwnerIdAndIdIn(ownerId, chunk).stream()
+                    .collect(Collectors.toMap(TaskDTO::getId, Function.identity()));
+            for (Long id : chunk) {
+                if (!previous.containsKey(id)) {
+                    // another user's task looks exactly like a missing one
+                    failures.add(new TaskBatchFailureDTO(id, "Task not found"));
+                }
+            }
+            if (previous.isEmpty()) {
+                continue;
+            }
+            int changed = taskRepository.bulkUpdate(ownerId, previous.keySet(), changes, now);
+            if (changed != previous.size()) {
+                // cannot happen while the rows are locked; never publish events for rows left untouched
+                throw new IllegalStateException("Batch update changed " + changed + " of " + previous.size() + " locked tasks");
+            }
+            updated += changed;
+
+            // the listeners need whole tasks, labels included, to keep their derived state right
+            List<TaskDTO> before = new ArrayList<>(previous.values());
+            TaskService.attachLabels(taskRepository, before);
+            for (TaskDTO task : before) {
+                eventPublisher.publishEvent(TaskChangedEvent.updated(ownerId, task, applied(task, changes, now)));
+            }
+        }
+
+        return TaskBatchResultDTO.builder()
+                .matched(ids.size())
+                .updated(updated)
+                .failures(failures)
+                .build();
+    }
+
+    private TaskChangesDTO validate(TaskBatchUpdateDTO request) {
+        if (request == null || request.getChanges() == null || request.getChanges().isEmpty()) {
+            throw new InvalidInputException("changes must set at least one field");
+        }
+        if ((request.getIds() == null) == (request.getFilter() == null)) {
+            throw new InvalidInputException("Select tasks with either ids or filter");
+        }
+        if (request.getIds() != null && (request.getIds().isEmpty() || request.getIds().size() > maxTasks)) {
+            throw new InvalidInputException("ids must contain between 1 and " + maxTasks + " task ids");
+        }
+        TaskChangesDTO changes = request.getChanges();
+        if (changes.isClearDueDate() && changes.getDueDate() != null) {
+            throw new InvalidInputException("dueDate cannot be both set and cleared");
+        }
+        if (changes.isClearAssignee() && changes.getAssigneeId() != null) {
+            throw new InvalidInputException("assigneeId cannot be both set and cleared");
+        }
+        if (changes.getAssigneeId() != null && !userRepository.existsById(changes.getAssigneeId())) {
+            throw new InvalidInputException("Unknown assignee: " + changes.getAssigneeId());
+        }
+        return changes;
+    }
+
+    private List<Long> select(Long ownerId, TaskBatchUpdateDTO request) {
+        if (request.getIds() != null) {
+            if (request.getIds().contains(null)) {
+                throw new InvalidInputException("ids must not contain null");
+            }
+            return List.copyOf(new LinkedHashSet<>(request.getIds()));
+        }
+        TaskFilterDTO filter = request.getFilter();
+        // one over the limit tells a filter that is too broad apart from one that just fits
+        List<Long> ids = filter.getLabels() != null
+                ? taskLabelIndex.page(ownerId, LabelExpression.parse(filter.getLabels()), filter.getStatus(), 0, maxTasks + 1)
+                : taskRepository.findIdsByOwnerIdAndStatus(ownerId, filter.getStatus(), Limit.of(maxTasks + 1));
+        if (ids.size() > maxTasks) {
+            throw new InvalidInputException("The filter matches more than " + maxTasks + " tasks; narrow it down");
+        }
+        return ids;
+    }
+
+    private static TaskDTO applied(TaskDTO task, TaskChangesDTO changes, Instant now) {
+        TaskDTO result = new TaskDTO(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(),
+                task.getDueDate(), task.getAssigneeId(), task.getCreatedAt(), now, task.getVersion() + 1, task.getLabels());
+        if (changes.getStatus() != null) {
+            result.setStatus(changes.getStatus());
+        }
+        if (changes.isClearDueDate()) {
+            result.setDueDate(null);
+        } else if (changes.getDueDate() != null) {
+            result.setDueDate(changes.getDueDate());
+        }
+        if (changes.isClearAssignee()) {
+            result.setAssigneeId(null);
+        } else if (changes.getAssigneeId() != null) {
+            result.setAssigneeId(changes.getAssigneeId());
+        }
+        return result;
+    }
+}
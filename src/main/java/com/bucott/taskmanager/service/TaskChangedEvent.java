@@ -0,0 +1,25 @@
+package com.bucott.taskmanager.service;
+
+import com.bucott.taskmanager.dto.task.TaskDTO;
+
+// Published inside the transaction that wrote the task. Anything mirroring task state in memory
+// should listen with @TransactionalEventListener so it only ever sees committed changes.
+// task is the state after the change (null for deletions), previous the state before it
+// (null for creations), both with their labels, so listeners keeping aggregates can retract
+// the old contribution.
+public record TaskChangedEvent(Type type, Long ownerId, Long taskId, TaskDTO task, TaskDTO previous) {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    public static TaskChangedEvent created(Long ownerId, TaskDTO task) {
+        return new TaskChangedEvent(Type.CREATED, ownerId, task.getId(), task, null);
+    }
+
+    public static TaskChangedEvent updated(Long ownerId, TaskDTO previous, TaskDTO task) {
+        return new TaskChangedEvent(Type.UPDATED, ownerId, task.getId(), task, previous);
+    }
+
+    public static TaskChangedEvent deleted(Long ownerId, TaskDTO previous) {
+        return new TaskChangedEvent(Type.DELETED, ownerId, previous.getId(), null, previous);
+    }
+}
@@ -0,0 +1,460 @@
+package com.bucott.taskmanager.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bucott.taskmanager.dto.task.TaskDTO;
+import com.bucott.taskmanager.dto.task.TaskStatsDTO;
+import com.bucott.taskmanager.model.TaskStats;
+import com.bucott.taskmanager.model.TaskStatus;
+import com.bucott.taskmanager.repository.TaskCounterView;
+import com.bucott.taskmanager.repository.TaskRepository;
+import com.bucott.taskmanager.repository.TaskStatsRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Per-owner task counts (by status, plus overdue) kept in memory and adjusted on every committed
+// TaskChangedEvent, so reading them never touches the database. An owner is counted from the
+// database on first use or by the warm-up after startup.
+//
+// Overdue is advanced by time rather than computed on read: unfinished tasks with a future due date
+// sit in per-owner buckets keyed by due time (at overdue-resolution granularity), and a scheduled
+// roll moves every bucket that has passed into the overdue count. A scheduled check recounts loaded
+// owners from the database and repairs any drift; dirty owners are periodically written to
+// task_stats as a reporting snapshot. Memory stays authoritative, the table is never read back.
+@Component
+public class TaskCounterService {
+    private static final Logger logger = LoggerFactory.getLogger(TaskCounterService.class);
+
+    private final TaskRepository taskRepository;
+    private final TaskStatsRepository taskStatsRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate transaction;
+    private final long resolutionMillis;
+    private final boolean warmUpOnStartup;
+    private final ConcurrentHashMap<Long, OwnerCounters> owners = new ConcurrentHashMap<>();
+    private final Counter corrections;
+
+    public TaskCounterService(TaskRepository taskRepository, TaskStatsRepository taskStatsRepository,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${task-counters.overdue-resolution:1m}") Duration overdueResolution,
+            @Value("${task-counters.warm-up-on-startup:true}") boolean warmUpOnStartup) {
+        this.taskRepository = taskRepository;
+        this.taskStatsRepository = taskStatsRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.resolutionMillis = Math.max(1, overdueResolution.toMillis());
+        this.warmUpOnStartup = warmUpOnStartup;
+
+        Gauge.builder("task.counters.owners", owners, Map::size)
+                .description("Owners whose task counters are loaded")
+                .register(meterRegistry);
+        Gauge.builder("task.counters.pending.buckets", this, TaskCounterService::pendingBuckets)
+                .description("Due-time buckets waiting to roll into the overdue counts")
+                .register(meterRegistry);
+        this.corrections = Counter.builder("task.counters.corrections")
+                .description("Owners whose in-memory counters disagreed with the database on a consistency check")
+                .register(meterRegistry);
+    }
+
+    public TaskStatsDTO stats(Long ownerId) {
+        OwnerCounters counters = loaded(ownerId);
+        long open = counters.byStatus.get(TaskStatus.OPEN).sum();
+        long inProgress = counters.byStatus.get(TaskStatus.IN_PROGRESS).sum();
+        long done = counters.byStatus.get(TaskStatus.DONE).sum();
+        return TaskStatsDTO.builder()
+                .open(open)
+                .inProgress(inProgress)
+                .done(done)
+                .overdue(counters.overdue.sum())
+                .total(open + inProgress + done)
+                .build();
+    }
+
+    // Deltas only need the read lock: the adders take concurrent updates, and the write lock is
+    // reserved for anything that moves counts between buckets or replaces them wholesale.
+    // While the owner is being recounted, events are held back for recount() to reconcile.
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        OwnerCounters counters = owners.get(event.ownerId());
+        if (counters == null) {
+            return;
+        }
+        counters.lock.readLock().lock();
+        try {
+            Queue<TaskChangedEvent> deferred = counters.deferred;
+            if (deferred != null) {
+                deferred.add(event);
+            } else if (counters.loaded) {
+                counters.apply(event);
+            }
+        } finally {
+            counters.lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${task-counters.overdue-resolution:1m}")
+    public void rollOverdue() {
+        rollOverdue(Instant.now());
+    }
+
+    // Move every due-time bucket that ended before the current one into the overdue counts
+    public void rollOverdue(Instant now) {
+        long through = bucket(now.toEpochMilli()) - 1;
+        for (OwnerCounters counters : owners.values()) {
+            if (!counters.loaded || counters.rolledThrough >= through) {
+                continue;
+            }
+            counters.lock.writeLock().lock();
+            try {
+                counters.rollThrough(through);
+            } finally {
+                counters.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // Events lost to a listener failure, or delivered so late that they missed a recount's hold-back,
+    // would otherwise skew an owner's counts until restart
+    @Scheduled(fixedDelayString = "${task-counters.check-interval:1h}",
+            initialDelayString = "${task-counters.check-interval:1h}")
+    public void checkConsistency() {
+        int corrected = 0;
+        for (Map.Entry<Long, OwnerCounters> entry : owners.entrySet()) {
+            OwnerCounters counters = entry.getValue();
+            if (!counters.loaded) {
+                continue;
+            }
+            counters.recountLock.lock();
+            try {
+                if (recount(entry.getKey(), counters)) {
+                    corrections.increment();
+                    corrected++;
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Task counter check failed for owner {}: {}", entry.getKey(), e.getMessage());
+            } finally {
+                counters.recountLock.unlock();
+            }
+        }
+        if (corrected > 0) {
+            logger.warn("Corrected task counters for {} owners", corrected);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${task-counters.persist-interval:1m}",
+            initialDelayString = "${task-counters.persist-interval:1m}")
+    public void persist() {
+        Instant now = Instant.now();
+        List<TaskStats> snapshots = new ArrayList<>();
+        List<OwnerCounters> written = new ArrayList<>();
+        for (Map.Entry<Long, OwnerCounters> entry : owners.entrySet()) {
+            OwnerCounters counters = entry.getValue();
+            if (!counters.loaded || !counters.dirty) {
+                continue;
+            }
+            // cleared before reading, so a change landing mid-read marks the owner dirty again
+            counters.dirty = false;
+            written.add(counters);
+            TaskStatsDTO stats = stats(entry.getKey());
+            snapshots.add(new TaskStats(entry.getKey(), stats.getOpen(), stats.getInProgress(), stats.getDone(),
+                    stats.getOverdue(), now));
+        }
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        try {
+            transaction.executeWithoutResult(tx -> taskStatsRepository.saveAll(snapshots));
+        } catch (RuntimeException e) {
+            written.forEach(counters -> counters.dirty = true);
+            logger.warn("Writing task counter snapshots failed: {}", e.getMessage());
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmUpOnStartup) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<Long> ownerIds = readOnlyTransaction.execute(tx -> taskRepository.findOwnerIds());
+        for (Long ownerId : ownerIds) {
+            try {
+                loaded(ownerId);
+            } catch (RuntimeException e) {
+                // the owner is retried on its first read
+                logger.warn("Task counter warm-up failed for owner {}: {}", ownerId, e.getMessage());
+            }
+        }
+        logger.info("Task counters loaded for {} owners in {} ms", ownerIds.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private OwnerCounters loaded(Long ownerId) {
+        OwnerCounters counters = owners.computeIfAbsent(ownerId, id -> new OwnerCounters(resolutionMillis));
+        if (counters.loaded) {
+            return counters;
+        }
+        counters.recountLock.lock();
+        try {
+            if (!counters.loaded) {
+                recount(ownerId, counters);
+            }
+        } finally {
+            counters.recountLock.unlock();
+        }
+        return counters;
+    }
+
+    // Counts the owner from the database without blocking its writers, then installs the result if the
+    // owner was not loaded or its counters disagree; returns whether loaded counters were corrected.
+    // Events delivered during the count are held back. They are applied to the current counters as usual,
+    // but to the snapshot only if it has not seen them already: a change that committed before the count
+    // and was delivered after it would otherwise be counted twice. Caller holds recountLock.
+    private boolean recount(Long ownerId, OwnerCounters counters) {
+        counters.lock.writeLock().lock();
+        try {
+            counters.deferred = new ConcurrentLinkedQueue<>();
+        } finally {
+            counters.lock.writeLock().unlock();
+        }
+
+        Map<Long, CountedTask> seen = new HashMap<>();
+        OwnerCounters fresh;
+        try {
+            fresh = count(ownerId, Instant.now(), seen);
+        } catch (RuntimeException e) {
+            counters.lock.writeLock().lock();
+            try {
+                releaseDeferred(counters);
+            } finally {
+                counters.lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        counters.lock.writeLock().lock();
+        try {
+            reconcile(fresh, seen, releaseDeferred(counters));
+
+            boolean wasLoaded = counters.loaded;
+            if (wasLoaded) {
+                // line both up on the same bucket boundary before comparing
+                counters.rollThrough(fresh.rolledThrough);
+                fresh.rollThrough(counters.rolledThrough);
+                if (counters.matches(fresh)) {
+                    return false;
+                }
+            }
+            counters.replaceWith(fresh);
+            counters.loaded = true;
+            counters.dirty = true;
+            return wasLoaded;
+        } finally {
+            counters.lock.writeLock().unlock();
+        }
+    }
+
+    // Ends holding events back and applies them to the counters; caller holds the write lock
+    private static List<TaskChangedEvent> releaseDeferred(OwnerCounters counters) {
+        List<TaskChangedEvent> deferred = new ArrayList<>(counters.deferred);
+        counters.deferred = null;
+        if (counters.loaded) {
+            deferred.forEach(counters::apply);
+        }
+        return deferred;
+    }
+
+    // Brings a snapshot up to date with the events held back while it was read. Only each task's newest
+    // event matters, and only if it is newer than the version the snapshot saw; a task the snapshot does
+    // not have was created after it (or deleted before it, when the event is the deletion).
+    private static void reconcile(OwnerCounters fresh, Map<Long, CountedTask> seen, List<TaskChangedEvent> events) {
+        Map<Long, TaskChangedEvent> newest = new HashMap<>();
+        for (TaskChangedEvent event : events) {
+            newest.merge(event.taskId(), event, (a, b) -> version(b) > version(a) ? b : a);
+        }
+        for (TaskChangedEvent event : newest.values()) {
+            CountedTask counted = seen.get(event.taskId());
+            if (counted != null) {
+                if (version(event) <= counted.version()) {
+                    continue;
+                }
+                fresh.apply(counted.status(), counted.dueDate(), -1);
+            }
+            if (event.task() != null) {
+                fresh.apply(event.task(), 1);
+            }
+        }
+    }
+
+    // the version the task is at after the event; a deletion counts as one past the state it removed
+    private static long version(TaskChangedEvent event) {
+        return event.task() != null
+                ? Objects.requireNonNullElse(event.task().getVersion(), 0L)
+                : Objects.requireNonNullElse(event.previous().getVersion(), 0L) + 1;
+    }
+
+    // seen collects the version and counted state of every task, for reconcile()
+    private OwnerCounters count(Long ownerId, Instant now, Map<Long, CountedTask> seen) {
+        OwnerCounters fresh = new OwnerCounters(resolutionMillis);
+        fresh.rolledThrough = bucket(now.toEpochMilli()) - 1;
+        readOnlyTransaction.executeWithoutResult(tx -> {
+            try (Stream<TaskCounterView> tasks = taskRepository.streamCounterViewsByOwnerId(ownerId)) {
+                tasks.forEach(task -> {
+                    fresh.apply(task.getStatus(), task.getDueDate(), 1);
+                    seen.put(task.getId(), new CountedTask(Objects.requireNonNullElse(task.getVersion(), 0L),
+                            task.getStatus(), task.getDueDate()));
+                });
+            }
+        });
+        return fresh;
+    }
+
+    private long bucket(long epochMillis) {
+        return Math.floorDiv(epochMillis, resolutionMillis);
+    }
+
+    private double pendingBuckets() {
+        long buckets = 0;
+        for (OwnerCounters counters : owners.values()) {
+            buckets += counters.pending.size();
+        }
+        return buckets;
+    }
+
+    // a task as the snapshot counted it
+    private record CountedTask(long version, TaskStatus status, Instant dueDate) {
+    }
+
+    private static final class OwnerCounters {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        // one recount at a time; held for the whole database read, which the read/write lock is not
+        final ReentrantLock recountLock = new ReentrantLock();
+        // non-null while a recount runs: events delivered meanwhile, added under the read lock
+        volatile Queue<TaskChangedEvent> deferred;
+        final long resolutionMillis;
+        volatile boolean loaded;
+        volatile boolean dirty;
+        final Map<TaskStatus, LongAdder> byStatus = new EnumMap<>(TaskStatus.class);
+        final LongAdder overdue = new LongAdder();
+        // unfinished tasks by the due-time bucket in which they become overdue
+        final ConcurrentSkipListMap<Long, LongAdder> pending = new ConcurrentSkipListMap<>();
+        // buckets up to and including this one have been rolled into overdue
+        volatile long rolledThrough;
+
+        OwnerCounters(long resolutionMillis) {
+            this.resolutionMillis = resolutionMillis;
+            for (TaskStatus status : TaskStatus.values()) {
+                byStatus.put(status, new LongAdder());
+            }
+        }
+
+        void apply(TaskChangedEvent event) {
+            if (event.previous() != null) {
+                apply(event.previous(), -1);
+            }
+            if (event.task() != null) {
+                apply(event.task(), 1);
+            }
+            dirty = true;
+        }
+
+        void apply(TaskDTO task, int delta) {
+            apply(task.getStatus(), task.getDueDate(), delta);
+        }
+
+        void apply(TaskStatus status, Instant dueDate, int delta) {
+            byStatus.get(status).add(delta);
+            if (status != TaskStatus.DONE && dueDate != null) {
+                adjustDue(dueDate, delta);
+            }
+        }
+
+        // emptied buckets are left in place and cleared by the roll that passes them
+        private void adjustDue(Instant dueDate, int delta) {
+            long bucket = Math.floorDiv(dueDate.toEpochMilli(), resolutionMillis);
+            if (bucket <= rolledThrough) {
+                overdue.add(delta);
+            } else {
+                pending.computeIfAbsent(bucket, b -> new LongAdder()).add(delta);
+            }
+        }
+
+        // caller holds the write lock
+        void rollThrough(long through) {
+            if (through <= rolledThrough) {
+                return;
+            }
+            ConcurrentNavigableMap<Long, LongAdder> passed = pending.headMap(through, true);
+            long moved = sum(passed.values());
+            passed.clear();
+            overdue.add(moved);
+            rolledThrough = through;
+            if (moved != 0) {
+                dirty = true;
+            }
+        }
+
+        boolean matches(OwnerCounters other) {
+            for (TaskStatus status : TaskStatus.values()) {
+                if (byStatus.get(status).sum() != other.byStatus.get(status).sum()) {
+                    return false;
+                }
+            }
+            return overdue.sum() == other.overdue.sum() && sum(pending.values()) == sum(other.pending.values());
+        }
+
+        private static long sum(Collection<LongAdder> counts) {
+            long total = 0;
+            for (LongAdder count : counts) {
+                total += count.sum();
+            }
+            return total;
+        }
+
+        void replaceWith(OwnerCounters other) {
+            for (TaskStatus status : TaskStatus.values()) {
+                byStatus.get(status).reset();
+                byStatus.get(status).add(other.byStatus.get(status).sum());
+            }
+            overdue.reset();
+            overdue.add(other.overdue.sum());
+            pending.clear();
+            pending.putAll(other.pending);
+            rolledThrough = other.rolledThrough;
+        }
+    }
+}
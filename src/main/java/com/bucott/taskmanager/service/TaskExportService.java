@@ -0,0 +1,219 @@
+package com.bucott.taskmanager.service;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Locale;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bucott.taskmanager.dto.task.TaskDTO;
+import com.bucott.taskmanager.exception.InvalidInputException;
+import com.bucott.taskmanager.model.TaskStatus;
+import com.bucott.taskmanager.repository.TaskRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+// Writes a user's tasks straight from a database cursor to the response.
+// Rows are serialized a fetch window at a time (labels for the window come from one extra query),
+// so heap use is one window plus the output buffer, whatever the number of tasks.
+@Service
+public class TaskExportService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv;charset=UTF-8", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return Format.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidInputException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter rowWriter;
+    private final int fetchSize;
+
+    public TaskExportService(TaskRepository taskRepository, PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper, @Value("${task-export.fetch-size:500}") int fetchSize) {
+        this.taskRepository = taskRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // flushing after every row would defeat the output buffer and the gzip window
+        this.rowWriter = objectMapper.writerFor(TaskDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+        this.fetchSize = fetchSize;
+    }
+
+    // Streams the export to out, gzip-compressed if requested. out is flushed but not closed.
+    public void export(Long ownerId, TaskStatus status, Format format, boolean gzip, OutputStream out)
+            throws IOException {
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        OutputStream target = new BufferedOutputStream(compressed != null ? compressed : out, BUFFER_SIZE);
+        try {
+            // the cursor needs an open connection for as long as rows are being written
+            readOnlyTransaction.executeWithoutResult(tx -> {
+                try (Stream<TaskDTO> rows = taskRepository.streamAll(ownerId, status, fetchSize)) {
+                    Iterator<TaskDTO> labelled = new LabelledRows(rows.iterator());
+                    if (format == Format.CSV) {
+                        writeCsv(labelled, target);
+                    } else {
+                        writeNdjson(labelled, target);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        target.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+        out.flush();
+    }
+
+    private void writeNdjson(Iterator<TaskDTO> rows, OutputStream out) throws IOException {
+        if (!rows.hasNext()) {
+            return;
+        }
+        // the generator must not close the response stream, that belongs to the caller
+        JsonGenerator generator = rowWriter.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try (SequenceWriter sequence = rowWriter.writeValues(generator)) {
+            while (rows.hasNext()) {
+                sequence.write(rows.next());
+            }
+        }
+        generator.writeRaw('\n');
+        generator.close();
+    }
+
+    private void writeCsv(Iterator<TaskDTO> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write("id,title,description,status,dueDate,assigneeId,createdAt,updatedAt,labels\r\n");
+        while (rows.hasNext()) {
+            TaskDTO task = rows.next();
+            writer.write(String.valueOf(task.getId()));
+            writer.write(',');
+            writeCsvField(writer, task.getTitle());
+            writer.write(',');
+            writeCsvField(writer, task.getDescription());
+            writer.write(',');
+            writer.write(task.getStatus().name());
+            writer.write(',');
+            writeInstant(writer, task.getDueDate());
+            writer.write(',');
+            if (task.getAssigneeId() != null) {
+                writer.write(String.valueOf(task.getAssigneeId()));
+            }
+            writer.write(',');
+            writeInstant(writer, task.getCreatedAt());
+            writer.write(',');
+            writeInstant(writer, task.getUpdatedAt());
+            writer.write(',');
+            // labels cannot contain ';', so it needs no quoting
+            writer.write(String.join(";", task.getLabels()));
+            writer.write("\r\n");
+        }
+        writer.flush();
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks, doubling embedded quotes
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    // Pulls a fetch window of rows from the cursor and attaches their labels before handing them out
+    private final class LabelledRows implements Iterator<TaskDTO> {
+        private final Iterator<TaskDTO> rows;
+        private final List<TaskDTO> window = new ArrayList<>(fetchSize);
+        private int next;
+
+        LabelledRows(Iterator<TaskDTO> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next < window.size()) {
+                return true;
+            }
+            window.clear();
+            next = 0;
+            while (window.size() < fetchSize && rows.hasNext()) {
+                window.add(rows.next());
+            }
+            TaskService.attachLabels(taskRepository, window);
+            return !window.isEmpty();
+        }
+
+        @Override
+        public TaskDTO next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return window.get(next++);
+        }
+    }
+
+    private static void writeInstant(Writer writer, Instant value) throws IOException {
+        if (value != null) {
+            writer.write(value.toString());
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.bucott.taskmanager.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bucott.taskmanager.dto.task.TaskImportEventDTO;
+import com.bucott.taskmanager.dto.task.TaskRequestDTO;
+import com.bucott.taskmanager.model.Task;
+import com.bucott.taskmanager.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Streams NDJSON task rows from the request body and writes them in JDBC batches.
+// Memory is bounded by one batch of rows: each batch commits in its own transaction and the
+// persistence context is flushed and cleared after it. Bad rows are reported and skipped.
+@Service
+public class TaskImportService {
+    private static final Logger logger = LoggerFactory.getLogger(TaskImportService.class);
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader rowReader;
+    private final int batchSize;
+    private final int maxLineLength;
+
+    public TaskImportService(PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${task-import.batch-size:500}") int batchSize,
+            @Value("${task-import.max-line-length:65536}") int maxLineLength) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.rowReader = objectMapper.readerFor(TaskRequestDTO.class);
+        this.batchSize = batchSize;
+        this.maxLineLength = maxLineLength;
+    }
+
+    private record Row(long line, TaskRequestDTO request) {
+    }
+
+    public TaskImportEventDTO importTasks(Long ownerId, InputStream body, Consumer<TaskImportEventDTO> listener)
+            throws IOException {
+        // readLine() takes one char at a time, so it must come from a buffer, not straight from the decoder
+        Reader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), READ_BUFFER_SIZE);
+        StringBuilder line = new StringBuilder();
+        List<Row> pending = new ArrayList<>(batchSize);
+        long lineNumber = 0;
+        long imported = 0;
+        long failed = 0;
+        int batch = 0;
+
+        while (true) {
+            LineStatus status = readLine(reader, line);
+            if (status == LineStatus.END && line.isEmpty()) {
+                break;
+            }
+            lineNumber++;
+
+            if (status == LineStatus.TOO_LONG) {
+                failed++;
+                listener.accept(rowError(lineNumber, "Line exceeds " + maxLineLength + " characters"));
+            } else if (!line.toString().isBlank()) {
+                try {
+                    TaskRequestDTO request = rowReader.readValue(line.toString());
+                    TaskService.validate(request);
+                    pending.add(new Row(lineNumber, request));
+                } catch (JsonProcessingException e) {
+                    failed++;
+                    listener.accept(rowError(lineNumber, "Malformed JSON: " + e.getOriginalMessage()));
+                } catch (RuntimeException e) {
+                    failed++;
+                    listener.accept(rowError(lineNumber, e.getMessage()));
+                }
+            }
+
+            if (pending.size() >= batchSize) {
+                BatchResult result = writeBatch(ownerId, pending, listener);
+                imported += result.imported();
+                failed += result.failed();
+                listener.accept(batchDone(++batch, imported, failed));
+                pending.clear();
+            }
+            if (status == LineStatus.END) {
+                break;
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            BatchResult result = writeBatch(ownerId, pending, listener);
+            imported += result.imported();
+            failed += result.failed();
+            listener.accept(batchDone(++batch, imported, failed));
+        }
+
+        logger.info("Imported {} tasks for user {} ({} rows rejected)", imported, ownerId, failed);
+        TaskImportEventDTO summary = TaskImportEventDTO.builder()
+                .type(TaskImportEventDTO.SUMMARY)
+                .batch(batch)
+                .imported(imported)
+                .failed(failed)
+                .build();
+        listener.accept(summary);
+        return summary;
+    }
+
+    private record BatchResult(long imported, long failed) {
+    }
+
+    private BatchResult writeBatch(Long ownerId, List<Row> rows, Consumer<TaskImportEventDTO> listener) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> persist(ownerId, rows));
+            return new BatchResult(rows.size(), 0);
+        } catch (RuntimeException batchFailure) {
+            // isolate the offending rows so one bad row does not reject the whole batch
+            logger.debug("Import batch failed, retrying row by row: {}", batchFailure.getMessage());
+            long imported = 0;
+            long failed = 0;
+            for (Row row : rows) {
+                try {
+                    transactionTemplate.executeWithoutResult(tx -> persist(ownerId, List.of(row)));
+                    imported++;
+                } catch (RuntimeException rowFailure) {
+                    failed++;
+                    listener.accept(rowError(row.line(), rowFailure.getMessage()));
+                }
+            }
+            return new BatchResult(imported, failed);
+        }
+    }
+
+    private void persist(Long ownerId, List<Row> rows) {
+        User owner = entityManager.getReference(User.class, ownerId);
+        List<Task> tasks = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            Task task = new Task();
+            task.setOwner(owner);
+            TaskService.apply(task, row.request());
+            // an unknown assignee fails the batch on its foreign key and is then reported against its row
+            Long assigneeId = row.request().getAssigneeId();
+            task.setAssignee(assigneeId != null ? entityManager.getReference(User.class, assigneeId) : null);
+            entityManager.persist(task);
+            tasks.add(task);
+        }
+        entityManager.flush();
+        // delivered to transactional listeners only if this batch commits
+        for (Task task : tasks) {
+            eventPublisher.publishEvent(TaskChangedEvent.created(ownerId, TaskService.toDto(task)));
+        }
+        entityManager.clear();
+    }
+
+    private enum LineStatus { LINE, TOO_LONG, END }
+
+    // Reads one line into buffer without ever holding more than maxLineLength characters
+    private LineStatus readLine(Reader reader, StringBuilder buffer) throws IOException {
+        buffer.setLength(0);
+        boolean tooLong = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (c == '\n') {
+                return tooLong ? LineStatus.TOO_LONG : LineStatus.LINE;
+            }
+            if (c == '\r') {
+                continue;
+            }
+            if (buffer.length() < maxLineLength) {
+                buffer.append((char) c);
+            } else {
+                tooLong = true;
+            }
+        }
+        return tooLong ? LineStatus.TOO_LONG : LineStatus.END;
+    }
+
+    private static TaskImportEventDTO rowError(long line, String message) {
+        return TaskImportEventDTO.builder()
+                .type(TaskImportEventDTO.ERROR)
+                .line(line)
+                .message(message)
+                .build();
+    }
+
+    private static TaskImportEventDTO batchDone(int batch, long imported, long failed) {
+        return TaskImportEventDTO.builder()
+                .type(TaskImportEventDTO.BATCH)
+                .batch(batch)
+                .imported(imported)
+                .failed(failed)
+                .build();
+    }
+}
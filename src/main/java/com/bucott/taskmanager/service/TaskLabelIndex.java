@@ -0,0 +1,198 @@
+package com.bucott.taskmanager.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.roaringbitmap.longlong.PeekableLongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bucott.taskmanager.dto.task.TaskDTO;
+import com.bucott.taskmanager.model.TaskStatus;
+import com.bucott.taskmanager.repository.TaskLabelView;
+import com.bucott.taskmanager.repository.TaskRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Per-owner compressed (Roaring) bitmaps of task ids: one per label, one per status and one of all tasks.
+// Boolean label filters become bitmap AND/OR/ANDNOT, and a page is read off the result in id order,
+// so the database is only asked for the rows on that page. An owner is loaded on first use and then
+// kept current from committed TaskChangedEvents, the same way as the search index.
+@Component
+public class TaskLabelIndex {
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ConcurrentHashMap<Long, OwnerLabels> owners = new ConcurrentHashMap<>();
+    private final Timer queryTimer;
+
+    public TaskLabelIndex(TaskRepository taskRepository, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        Gauge.builder("task.labels.index.owners", owners, Map::size)
+                .description("Owners whose label bitmaps are loaded")
+                .register(meterRegistry);
+        Gauge.builder("task.labels.index.bytes", this, TaskLabelIndex::sizeInBytes)
+                .description("Approximate memory held by the label and status bitmaps")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.queryTimer = Timer.builder("task.labels.query")
+                .description("Time to evaluate a label expression and cut a page from the result")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    // Ids of the owner's tasks matching expression (and status, if given) greater than afterId, ascending
+    public List<Long> page(Long ownerId, LabelExpression expression, TaskStatus status, long afterId, int limit) {
+        OwnerLabels labels = loaded(ownerId);
+        long start = System.nanoTime();
+        labels.lock.readLock().lock();
+        try {
+            Roaring64Bitmap universe = status == null ? labels.all : labels.byStatus.get(status);
+            if (universe == null || universe.isEmpty()) {
+                return List.of();
+            }
+            Roaring64Bitmap matches = expression.evaluate(universe, labels.byLabel::get);
+            matches.and(universe);
+
+            List<Long> page = new ArrayList<>(limit);
+            PeekableLongIterator ids = matches.getLongIterator();
+            ids.advanceIfNeeded(afterId + 1);
+            while (ids.hasNext() && page.size() < limit) {
+                page.add(ids.next());
+            }
+            return page;
+        } finally {
+            labels.lock.readLock().unlock();
+            queryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        OwnerLabels labels = owners.get(event.ownerId());
+        if (labels == null) {
+            return;
+        }
+        labels.lock.writeLock().lock();
+        try {
+            if (!labels.loaded) {
+                return;
+            }
+            if (event.previous() != null) {
+                labels.remove(event.taskId(), event.previous().getLabels());
+            }
+            if (event.type() != TaskChangedEvent.Type.DELETED) {
+                TaskDTO task = event.task();
+                labels.add(task.getId(), task.getStatus());
+                for (String label : task.getLabels()) {
+                    labels.addLabel(task.getId(), label);
+                }
+            }
+        } finally {
+            labels.lock.writeLock().unlock();
+        }
+    }
+
+    private OwnerLabels loaded(Long ownerId) {
+        OwnerLabels labels = owners.computeIfAbsent(ownerId, id -> new OwnerLabels());
+        if (labels.loaded) {
+            return labels;
+        }
+        // holding the write lock makes concurrent events wait until the snapshot is in place
+        labels.lock.writeLock().lock();
+        try {
+            if (!labels.loaded) {
+                readOnlyTransaction.executeWithoutResult(tx -> {
+                    try (Stream<TaskLabelView> rows = taskRepository.streamLabelsByOwnerId(ownerId)) {
+                        rows.forEach(row -> {
+                            labels.add(row.getTaskId(), row.getStatus());
+                            if (row.getLabel() != null) {
+                                labels.addLabel(row.getTaskId(), row.getLabel());
+                            }
+                        });
+                    }
+                });
+                labels.all.runOptimize();
+                labels.byStatus.values().forEach(Roaring64Bitmap::runOptimize);
+                labels.byLabel.values().forEach(Roaring64Bitmap::runOptimize);
+                labels.loaded = true;
+            }
+        } finally {
+            labels.lock.writeLock().unlock();
+        }
+        return labels;
+    }
+
+    private double sizeInBytes() {
+        long bytes = 0;
+        for (OwnerLabels labels : owners.values()) {
+            labels.lock.readLock().lock();
+            try {
+                bytes += labels.all.getLongSizeInBytes();
+                for (Roaring64Bitmap bitmap : labels.byStatus.values()) {
+                    bytes += bitmap.getLongSizeInBytes();
+                }
+                for (Roaring64Bitmap bitmap : labels.byLabel.values()) {
+                    bytes += bitmap.getLongSizeInBytes();
+                }
+            } finally {
+                labels.lock.readLock().unlock();
+            }
+        }
+        return bytes;
+    }
+
+    private static final class OwnerLabels {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        volatile boolean loaded;
+        final Roaring64Bitmap all = new Roaring64Bitmap();
+        final Map<TaskStatus, Roaring64Bitmap> byStatus = new EnumMap<>(TaskStatus.class);
+        final Map<String, Roaring64Bitmap> byLabel = new HashMap<>();
+
+        void add(long taskId, TaskStatus status) {
+            all.addLong(taskId);
+            byStatus.computeIfAbsent(status, s -> new Roaring64Bitmap()).addLong(taskId);
+        }
+
+        void addLabel(long taskId, String label) {
+            byLabel.computeIfAbsent(label, l -> new Roaring64Bitmap()).addLong(taskId);
+        }
+
+        // every publisher attaches the task's labels to the event's previous state, so only those
+        // bitmaps are touched rather than every label the owner has
+        void remove(long taskId, List<String> previousLabels) {
+            if (!all.contains(taskId)) {
+                return;
+            }
+            all.removeLong(taskId);
+            byStatus.values().forEach(bitmap -> bitmap.removeLong(taskId));
+            if (previousLabels == null) {
+                return;
+            }
+            for (String label : previousLabels) {
+                Roaring64Bitmap bitmap = byLabel.get(label);
+                if (bitmap != null) {
+                    bitmap.removeLong(taskId);
+                    if (bitmap.isEmpty()) {
+                        byLabel.remove(label);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package com.bucott.taskmanager.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bucott.taskmanager.dto.task.TaskDTO;
+import com.bucott.taskmanager.exception.InvalidInputException;
+import com.bucott.taskmanager.repository.TaskRepository;
+import com.bucott.taskmanager.repository.TaskTextView;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// In-memory inverted index over task titles and descriptions, one per owner.
+// Each owner has a sorted term dictionary (for prefix lookups) pointing at posting lists of
+// task ids kept as sorted primitive arrays. An owner is loaded from the database the first
+// time it is searched, or by the background warm-up after startup; after that it is kept
+// current from committed TaskChangedEvents. Results are ranked with BM25, title terms weighted up.
+@Component
+public class TaskSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(TaskSearchIndex.class);
+    private static final int TITLE_WEIGHT = 3;
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    public record Hit(long taskId, double score) {
+    }
+
+    public record Result(List<Hit> hits, int total) {
+    }
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean warmUpOnStartup;
+    private final ConcurrentHashMap<Long, OwnerIndex> owners = new ConcurrentHashMap<>();
+    private final AtomicLong documentCount = new AtomicLong();
+    private final AtomicLong termCount = new AtomicLong();
+    private final AtomicLong postingCount = new AtomicLong();
+    private final Timer queryTimer;
+
+    public TaskSearchIndex(TaskRepository taskRepository, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${task-search.warm-up-on-startup:true}") boolean warmUpOnStartup) {
+        this.taskRepository = taskRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.warmUpOnStartup = warmUpOnStartup;
+
+        Gauge.builder("task.search.index.owners", owners, Map::size)
+                .description("Owners whose tasks are loaded into the search index")
+                .register(meterRegistry);
+        Gauge.builder("task.search.index.documents", documentCount, AtomicLong::get)
+                .description("Tasks in the search index")
+                .register(meterRegistry);
+        Gauge.builder("task.search.index.terms", termCount, AtomicLong::get)
+                .description("Distinct terms summed over all owner dictionaries")
+                .register(meterRegistry);
+        Gauge.builder("task.search.index.postings", postingCount, AtomicLong::get)
+                .description("Posting list entries summed over all owners")
+                .register(meterRegistry);
+        this.queryTimer = Timer.builder("task.search.latency")
+                .description("Time to evaluate and rank a search against the index")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    // Terms must all match; a term ending in '*' matches any indexed term with that prefix
+    public Result search(Long ownerId, String query, int offset, int limit) {
+        List<QueryTerm> terms = parseQuery(query);
+        if (terms.isEmpty()) {
+            throw new InvalidInputException("Search query must contain at least one word");
+        }
+        OwnerIndex index = loadedIndex(ownerId);
+
+        long start = System.nanoTime();
+        index.lock.readLock().lock();
+        try {
+            List<Hit> ranked = index.search(terms);
+            int from = Math.min(offset, ranked.size());
+            int to = Math.min(from + limit, ranked.size());
+            return new Result(List.copyOf(ranked.subList(from, to)), ranked.size());
+        } finally {
+            index.lock.readLock().unlock();
+            queryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Owners that have not been loaded yet are skipped: they will read committed state when first loaded
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        OwnerIndex index = owners.get(event.ownerId());
+        if (index == null) {
+            return;
+        }
+        index.lock.writeLock().lock();
+        try {
+            if (!index.loaded) {
+                return;
+            }
+            if (event.type() == TaskChangedEvent.Type.DELETED) {
+                index.remove(event.taskId());
+            } else {
+                TaskDTO task = event.task();
+                index.put(task.getId(), task.getTitle(), task.getDescription());
+            }
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmUpOnStartup) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<Long> ownerIds = readOnlyTransaction.execute(tx -> taskRepository.findOwnerIds());
+        for (Long ownerId : ownerIds) {
+            try {
+                loadedIndex(ownerId);
+            } catch (RuntimeException e) {
+                // the owner is retried on its first search
+                logger.warn("Search index warm-up failed for owner {}: {}", ownerId, e.getMessage());
+            }
+        }
+        logger.info("Search index warmed up for {} owners ({} tasks) in {} ms", ownerIds.size(), documentCount.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private OwnerIndex loadedIndex(Long ownerId) {
+        OwnerIndex index = owners.computeIfAbsent(ownerId, id -> new OwnerIndex());
+        if (index.loaded) {
+            return index;
+        }
+        // events for this owner wait on the write lock, so none can slip between the read and loaded = true
+        index.lock.writeLock().lock();
+        try {
+            if (!index.loaded) {
+                readOnlyTransaction.executeWithoutResult(tx -> {
+                    try (Stream<TaskTextView> rows = taskRepository.streamTextByOwnerId(ownerId)) {
+                        rows.forEach(row -> index.put(row.getId(), row.getTitle(), row.getDescription()));
+                    }
+                });
+                index.loaded = true;
+            }
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+        return index;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start <= MAX_TERM_LENGTH) {
+                    tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private record QueryTerm(String text, boolean prefix) {
+    }
+
+    private static List<QueryTerm> parseQuery(String query) {
+        List<QueryTerm> terms = new ArrayList<>();
+        if (query == null) {
+            return terms;
+        }
+        for (String word : query.trim().split("\\s+")) {
+            List<String> tokens = tokenize(word);
+            for (int i = 0; i < tokens.size(); i++) {
+                boolean last = i == tokens.size() - 1;
+                terms.add(new QueryTerm(tokens.get(i), last && word.endsWith("*")));
+            }
+        }
+        return terms;
+    }
+
+    // Stored in the per-task document table so a task's postings can be removed on update or delete
+    private record Document(String[] terms, int[] frequencies, int length) {
+    }
+
+    private final class OwnerIndex {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        volatile boolean loaded;
+        final TreeMap<String, PostingList> dictionary = new TreeMap<>();
+        final Map<Long, Document> documents = new HashMap<>();
+        long totalLength;
+
+        void put(long taskId, String title, String description) {
+            remove(taskId);
+            Map<String, Integer> frequencies = new HashMap<>();
+            for (String term : tokenize(title)) {
+                frequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+            }
+            for (String term : tokenize(description)) {
+                frequencies.merge(term, 1, Integer::sum);
+            }
+
+            String[] terms = new String[frequencies.size()];
+            int[] weights = new int[frequencies.size()];
+            int length = 0;
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                terms[i] = entry.getKey();
+                weights[i] = entry.getValue();
+                length += entry.getValue();
+                PostingList postings = dictionary.get(entry.getKey());
+                if (postings == null) {
+                    postings = new PostingList();
+                    // share the dictionary's key instance instead of holding a copy per document
+                    dictionary.put(entry.getKey(), postings);
+                    termCount.incrementAndGet();
+                } else {
+                    terms[i] = dictionary.ceilingKey(entry.getKey());
+                }
+                postings.add(taskId, entry.getValue());
+                i++;
+            }
+            documents.put(taskId, new Document(terms, weights, length));
+            totalLength += length;
+            documentCount.incrementAndGet();
+            postingCount.addAndGet(terms.length);
+        }
+
+        void remove(long taskId) {
+            Document document = documents.remove(taskId);
+            if (document == null) {
+                return;
+            }
+            for (String term : document.terms()) {
+                PostingList postings = dictionary.get(term);
+                if (postings != null && postings.remove(taskId) && postings.size() == 0) {
+                    dictionary.remove(term);
+                    termCount.decrementAndGet();
+                }
+            }
+            totalLength -= document.length();
+            documentCount.decrementAndGet();
+            postingCount.addAndGet(-document.terms().length);
+        }
+
+        List<Hit> search(List<QueryTerm> terms) {
+            if (documents.isEmpty()) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documents.size();
+
+            // score each query term on its own, then intersect starting from the rarest
+            List<Map<Long, Double>> perTerm = new ArrayList<>(terms.size());
+            for (QueryTerm term : terms) {
+                Map<Long, Double> scores = score(term, averageLength);
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+                perTerm.add(scores);
+            }
+            perTerm.sort(Comparator.comparingInt(Map::size));
+
+            List<Hit> hits = new ArrayList<>();
+            candidates:
+            for (Map.Entry<Long, Double> candidate : perTerm.get(0).entrySet()) {
+                double total = candidate.getValue();
+                for (int i = 1; i < perTerm.size(); i++) {
+                    Double score = perTerm.get(i).get(candidate.getKey());
+                    if (score == null) {
+                        continue candidates;
+                    }
+                    total += score;
+                }
+                hits.add(new Hit(candidate.getKey(), total));
+            }
+            hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparingLong(Hit::taskId));
+            return hits;
+        }
+
+        private Map<Long, Double> score(QueryTerm term, double averageLength) {
+            NavigableMap<String, PostingList> matches = term.prefix()
+                    ? dictionary.subMap(term.text(), true, term.text() + Character.MAX_VALUE, true)
+                    : exact(term.text());
+            Map<Long, Double> scores = new HashMap<>();
+            int documentTotal = documents.size();
+            for (PostingList postings : matches.values()) {
+                double idf = Math.log(1 + (documentTotal - postings.size() + 0.5) / (postings.size() + 0.5));
+                for (int i = 0; i < postings.size(); i++) {
+                    long taskId = postings.ids[i];
+                    int frequency = postings.frequencies[i];
+                    int length = documents.get(taskId).length();
+                    double score = idf * frequency * (K1 + 1)
+                            / (frequency + K1 * (1 - B + B * length / averageLength));
+                    // several expansions of one prefix count once, at their best
+                    scores.merge(taskId, score, Math::max);
+                }
+            }
+            return scores;
+        }
+
+        private NavigableMap<String, PostingList> exact(String term) {
+            PostingList postings = dictionary.get(term);
+            TreeMap<String, PostingList> match = new TreeMap<>();
+            if (postings != null) {
+                match.put(term, postings);
+            }
+            return match;
+        }
+    }
+
+    // Task ids in ascending order with their weighted term frequency, in parallel primitive arrays
+    private static final class PostingList {
+        long[] ids = new long[2];
+        int[] frequencies = new int[2];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void add(long taskId, int frequency) {
+            int position = Arrays.binarySearch(ids, 0, size, taskId);
+            if (position >= 0) {
+                frequencies[position] = frequency;
+                return;
+            }
+            int insertAt = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            System.arraycopy(frequencies, insertAt, frequencies, insertAt + 1, size - insertAt);
+            ids[insertAt] = taskId;
+            frequencies[insertAt] = frequency;
+            size++;
+        }
+
+        boolean remove(long taskId) {
+            int position = Arrays.binarySearch(ids, 0, size, taskId);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            System.arraycopy(frequencies, position + 1, frequencies, position, size - position - 1);
+            size--;
+            // give memory back once a list has shrunk well below its capacity
+            if (ids.length > 8 && size < ids.length / 4) {
+                ids = Arrays.copyOf(ids, ids.length / 2);
+                frequencies = Arrays.copyOf(frequencies, frequencies.length / 2);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.bucott.taskmanager.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bucott.taskmanager.dto.task.TaskCursor;
+import com.bucott.taskmanager.dto.task.TaskDTO;
+import com.bucott.taskmanager.dto.task.TaskPageDTO;
+import com.bucott.taskmanager.dto.task.TaskRequestDTO;
+import com.bucott.taskmanager.dto.task.TaskSearchPageDTO;
+import com.bucott.taskmanager.dto.task.TaskStatsDTO;
+import com.bucott.taskmanager.exception.InvalidInputException;
+import com.bucott.taskmanager.exception.PreconditionFailedException;
+import com.bucott.taskmanager.exception.TaskNotFoundException;
+import com.bucott.taskmanager.model.Task;
+import com.bucott.taskmanager.model.TaskStatus;
+import com.bucott.taskmanager.model.User;
+import com.bucott.taskmanager.repository.TaskLabelView;
+import com.bucott.taskmanager.repository.TaskRepository;
+import com.bucott.taskmanager.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+@Service
+public class TaskService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 4000;
+    private static final int MAX_LABELS = 20;
+    private static final int MAX_LABEL_LENGTH = 64;
+    private static final Pattern LABEL = Pattern.compile("[a-z0-9][a-z0-9_.:/-]*");
+    private static final Set<String> PATCHABLE_FIELDS =
+            Set.of("title", "description", "status", "dueDate", "assigneeId", "labels");
+
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskLabelIndex taskLabelIndex;
+    private final TaskCounterService taskCounterService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    public TaskService(TaskRepository taskRepository, UserRepository userRepository,
+            TaskSearchIndex taskSearchIndex, TaskLabelIndex taskLabelIndex, TaskCounterService taskCounterService,
+            ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper) {
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.taskSearchIndex = taskSearchIndex;
+        this.taskLabelIndex = taskLabelIndex;
+        this.taskCounterService = taskCounterService;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public TaskPageDTO list(Long ownerId, TaskStatus status, String labels, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidInputException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (labels != null) {
+            return listByLabels(ownerId, status, LabelExpression.parse(labels), TaskCursor.decode(cursor), pageSize);
+        }
+
+        // fetch one extra row to know whether another page exists
+        List<TaskDTO> rows = taskRepository.findPage(ownerId, status, TaskCursor.decode(cursor), pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<TaskDTO> items = hasMore ? rows.subList(0, pageSize) : rows;
+        attachLabels(taskRepository, items);
+
+        return TaskPageDTO.builder()
+                .items(List.copyOf(items))
+                .nextCursor(hasMore ? TaskCursor.after(items.get(items.size() - 1)).encode() : null)
+                .build();
+    }
+
+    // Label filters are answered by the bitmap index in id order; only the page's rows are read
+    private TaskPageDTO listByLabels(Long ownerId, TaskStatus status, LabelExpression expression, TaskCursor after,
+            int pageSize) {
+        List<Long> ids = taskLabelIndex.page(ownerId, expression, status, after == null ? 0 : after.id(), pageSize + 1);
+        boolean hasMore = ids.size() > pageSize;
+        List<Long> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+
+        List<TaskDTO> items = pageIds.isEmpty() ? new ArrayList<>()
+                : new ArrayList<>(taskRepository.findDtosByOwnerIdAndIdIn(ownerId, pageIds));
+        items.sort(Comparator.comparing(TaskDTO::getId));
+        attachLabels(taskRepository, items);
+
+        return TaskPageDTO.builder()
+                .items(List.copyOf(items))
+                .nextCursor(hasMore ? new TaskCursor(null, pageIds.get(pageIds.size() - 1)).encode() : null)
+                .build();
+    }
+
+    // Ranked ids come from the in-memory index; only the requested page is read from the database
+    @Transactional(readOnly = true)
+    public TaskSearchPageDTO search(Long ownerId, String query, Integer offset, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        int from = offset == null ? 0 : offset;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidInputException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (from < 0) {
+            throw new InvalidInputException("offset must not be negative");
+        }
+
+        TaskSearchIndex.Result result = taskSearchIndex.search(ownerId, query, from, pageSize);
+        List<Long> ids = result.hits().stream().map(TaskSearchIndex.Hit::taskId).toList();
+        Map<Long, TaskDTO> rows = ids.isEmpty() ? Map.of()
+                : taskRepository.findDtosByOwnerIdAndIdIn(ownerId, ids).stream()
+                        .collect(Collectors.toMap(TaskDTO::getId, Function.identity()));
+
+        List<TaskDTO> items = ids.stream().map(rows::get).filter(Objects::nonNull).toList();
+        attachLabels(taskRepository, items);
+
+        return TaskSearchPageDTO.builder()
+                // keep rank order; a task deleted since the index lookup is simply dropped
+                .items(items)
+                .total(result.total())
+                .nextOffset(from + pageSize < result.total() ? from + pageSize : null)
+                .build();
+    }
+
+    // Served from the in-memory counters; only an owner's first read counts rows
+    public TaskStatsDTO stats(Long ownerId) {
+        return taskCounterService.stats(ownerId);
+    }
+
+    @Transactional(readOnly = true)
+    public TaskDTO get(Long ownerId, Long taskId) {
+        TaskDTO task = taskRepository.findDtoByIdAndOwnerId(taskId, ownerId)
+                .orElseThrow(() -> notFound(taskId));
+        attachLabels(taskRepository, List.of(task));
+        return task;
+    }
+
+    @Transactional
+    public TaskDTO create(Long ownerId, TaskRequestDTO requestDto) {
+        validate(requestDto);
+        Task task = new Task();
+        // reference only, the owner row is not loaded
+        task.setOwner(userRepository.getReferenceById(ownerId));
+        apply(task, requestDto);
+        task.setAssignee(assigneeReference(requestDto.getAssigneeId()));
+        TaskDTO created = toDto(taskRepository.save(task));
+        eventPublisher.publishEvent(TaskChangedEvent.created(ownerId, created));
+        return created;
+    }
+
+    // expectedVersions comes from If-Match; null means unconditional
+    @Transactional
+    public TaskDTO update(Long ownerId, Long taskId, TaskRequestDTO requestDto, Set<Long> expectedVersions) {
+        validate(requestDto);
+        Task task = taskRepository.findByIdAndOwnerId(taskId, ownerId)
+                .orElseThrow(() -> notFound(taskId));
+        TaskDTO previous = toDto(task);
+        checkVersion(previous, expectedVersions);
+        return write(ownerId, task, previous, requestDto);
+    }
+
+    // JSON Merge Patch (RFC 7396): members present in the patch replace the current values, null clears
+    // them. The merged task goes through the same validation as a PUT, and with dynamic updates only the
+    // columns that actually changed are written.
+    @Transactional
+    public TaskDTO patch(Long ownerId, Long taskId, JsonNode patch, Set<Long> expectedVersions) {
+        if (patch == null || !patch.isObject()) {
+            throw new InvalidInputException("A merge patch must be a JSON object");
+        }
+        patch.fieldNames().forEachRemaining(field -> {
+            if (!PATCHABLE_FIELDS.contains(field)) {
+                throw new InvalidInputException("Unknown or read-only field: " + field);
+            }
+        });
+        Task task = taskRepository.findByIdAndOwnerId(taskId, ownerId)
+                .orElseThrow(() -> notFound(taskId));
+        TaskDTO previous = toDto(task);
+        checkVersion(previous, expectedVersions);
+
+        ObjectNode merged = objectMapper.valueToTree(toRequest(previous));
+        // no task field is itself an object, so the merge never has to recurse
+        patch.fields().forEachRemaining(field -> {
+            if (field.getValue().isNull()) {
+                merged.remove(field.getKey());
+            } else {
+                merged.set(field.getKey(), field.getValue());
+            }
+        });
+        TaskRequestDTO requestDto;
+        try {
+            requestDto = objectMapper.treeToValue(merged, TaskRequestDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new InvalidInputException("Invalid patch: " + e.getOriginalMessage());
+        }
+        validate(requestDto);
+        return write(ownerId, task, previous, requestDto);
+    }
+
+    private TaskDTO write(Long ownerId, Task task, TaskDTO previous, TaskRequestDTO requestDto) {
+        apply(task, requestDto);
+        if (!Objects.equals(previous.getAssigneeId(), requestDto.getAssigneeId())) {
+            task.setAssignee(assigneeReference(requestDto.getAssigneeId()));
+        }
+        // the flush checks the version in its WHERE clause, so a concurrent write fails here
+        TaskDTO updated = toDto(taskRepository.saveAndFlush(task));
+        eventPublisher.publishEvent(TaskChangedEvent.updated(ownerId, previous, updated));
+        return updated;
+    }
+
+    @Transactional
+    public void delete(Long ownerId, Long taskId, Set<Long> expectedVersions) {
+        // the deleted state is part of the event, so aggregates can subtract it; locked so a concurrent
+        // batch update cannot change it before the DELETE
+        TaskDTO previous = taskRepository.findDtoForUpdateByIdAndOwnerId(taskId, ownerId)
+                .orElseThrow(() -> notFound(taskId));
+        // the label index retracts the task from exactly these labels; previous is also the 412 body
+        attachLabels(taskRepository, List.of(previous));
+        if (expectedVersions == null) {
+            if (taskRepository.deleteByIdAndOwnerId(taskId, ownerId) == 0) {
+                throw notFound(taskId);
+            }
+        } else {
+            checkVersion(previous, expectedVersions);
+            if (taskRepository.deleteByIdAndOwnerIdAndVersion(taskId, ownerId, previous.getVersion()) == 0) {
+                throw new PreconditionFailedException("Task " + taskId + " was changed concurrently", get(ownerId, taskId));
+            }
+        }
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(ownerId, previous));
+    }
+
+    private static void checkVersion(TaskDTO current, Set<Long> expectedVersions) {
+        if (expectedVersions != null && !expectedVersions.contains(current.getVersion())) {
+            throw new PreconditionFailedException(
+                    "Task " + current.getId() + " is at version " + current.getVersion(), current);
+        }
+    }
+
+    private static TaskRequestDTO toRequest(TaskDTO task) {
+        return new TaskRequestDTO(task.getTitle(), task.getDescription(), task.getStatus(), task.getDueDate(),
+                task.getAssigneeId(), task.getLabels());
+    }
+
+    // Reference only, but checked first so an unknown id is a 400 rather than a constraint violation
+    User assigneeReference(Long assigneeId) {
+        if (assigneeId == null) {
+            return null;
+        }
+        if (!userRepository.existsById(assigneeId)) {
+            throw new InvalidInputException("Unknown assignee: " + assigneeId);
+        }
+        return userRepository.getReferenceById(assigneeId);
+    }
+
+    static void apply(Task task, TaskRequestDTO requestDto) {
+        task.setTitle(requestDto.getTitle().strip());
+        task.setDescription(requestDto.getDescription());
+        task.setStatus(requestDto.getStatus() != null ? requestDto.getStatus() : TaskStatus.OPEN);
+        task.setDueDate(requestDto.getDueDate());
+        Set<String> labels = requestDto.getLabels() == null ? Set.of()
+                : requestDto.getLabels().stream().map(TaskService::normalizeLabel).collect(Collectors.toSet());
+        // touching the collection would rewrite its rows, so leave it alone when nothing changed
+        if (!task.getLabels().equals(labels)) {
+            task.getLabels().retainAll(labels);
+            task.getLabels().addAll(labels);
+        }
+    }
+
+    static void validate(TaskRequestDTO requestDto) {
+        if (requestDto.getTitle() == null || requestDto.getTitle().isBlank()) {
+            throw new InvalidInputException("Title is required");
+        }
+        if (requestDto.getTitle().length() > MAX_TITLE_LENGTH) {
+            throw new InvalidInputException("Title must be at most " + MAX_TITLE_LENGTH + " characters");
+        }
+        if (requestDto.getDescription() != null && requestDto.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            throw new InvalidInputException("Description must be at most " + MAX_DESCRIPTION_LENGTH + " characters");
+        }
+        if (requestDto.getLabels() != null) {
+            if (requestDto.getLabels().size() > MAX_LABELS) {
+                throw new InvalidInputException("A task can have at most " + MAX_LABELS + " labels");
+            }
+            requestDto.getLabels().forEach(TaskService::normalizeLabel);
+        }
+    }
+
+    static String normalizeLabel(String label) {
+        String normalized = label == null ? "" : label.strip().toLowerCase(Locale.ROOT);
+        if (normalized.length() > MAX_LABEL_LENGTH || !LABEL.matcher(normalized).matches()) {
+            throw new InvalidInputException("Invalid label '" + label + "': use up to " + MAX_LABEL_LENGTH
+                    + " letters, digits or _ . : / - characters");
+        }
+        return normalized;
+    }
+
+    // One query for the labels of all tasks in the list
+    static void attachLabels(TaskRepository taskRepository, List<TaskDTO> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        Map<Long, List<String>> labels = new HashMap<>();
+        for (TaskLabelView row : taskRepository.findLabelsByIdIn(tasks.stream().map(TaskDTO::getId).toList())) {
+            labels.computeIfAbsent(row.getTaskId(), id -> new ArrayList<>()).add(row.getLabel());
+        }
+        for (TaskDTO task : tasks) {
+            List<String> taskLabels = labels.getOrDefault(task.getId(), List.of());
+            task.setLabels(taskLabels.stream().sorted().toList());
+        }
+    }
+
+    static TaskDTO toDto(Task task) {
+        // the assignee's id is read from the proxy without loading the user
+        return new TaskDTO(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(), task.getDueDate(),
+                task.getAssignee() != null ? task.getAssignee().getId() : null,
+                task.getCreatedAt(), task.getUpdatedAt(), task.getVersion(), task.getLabels().stream().sorted().toList());
+    }
+
+    private static TaskNotFoundException notFound(Long taskId) {
+        return new TaskNotFoundException("Task not found with id: " + taskId);
+    }
+}
@@ -0,0 +1,147 @@
+package com.bucott.taskmanager.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Hierarchical timing wheel keyed by a long id (Varghese & Lauck, as in the Linux and Kafka timers).
+// Deadlines are in ticks; each level has 64 slots and covers 64 times the span of the one below, and
+// eleven levels cover every non-negative long. An entry sits on the level of the highest base-64 digit
+// in which its deadline differs from the current tick, and is cascaded one level down each time the
+// wheel reaches that slot, so insert and cancel are O(1) and each entry moves at most once per level.
+// Not thread-safe: callers serialise access.
+final class TimingWheel<T> {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = (Long.SIZE + BITS - 1) / BITS;
+
+    static final class Entry<T> {
+        final long id;
+        final long deadline;
+        final T value;
+        Entry<T> prev;
+        Entry<T> next;
+
+        Entry(long id, long deadline, T value) {
+            this.id = id;
+            this.deadline = deadline;
+            this.value = value;
+        }
+    }
+
+    // each slot is a circular doubly linked list headed by a sentinel
+    private final Entry<T>[][] slots;
+    private final Entry<T> expired = sentinel();
+    private final Map<Long, Entry<T>> byId = new HashMap<>();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long startTick) {
+        this.currentTick = startTick;
+        this.slots = new Entry[LEVELS][SLOTS];
+        for (Entry<T>[] level : slots) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                level[slot] = sentinel();
+            }
+        }
+    }
+
+    long currentTick() {
+        return currentTick;
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    boolean contains(long id) {
+        return byId.containsKey(id);
+    }
+
+    // Adds or replaces the entry for id. A deadline at or before the current tick expires on the next advance.
+    void schedule(long id, long deadline, T value) {
+        cancel(id);
+        Entry<T> entry = new Entry<>(id, deadline, value);
+        byId.put(id, entry);
+        place(entry);
+    }
+
+    boolean cancel(long id) {
+        Entry<T> entry = byId.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    // Moves time forward to tick, handing every entry whose deadline has been reached to expire
+    void advanceTo(long tick, Consumer<Entry<T>> expire) {
+        drain(expired, expire);
+        while (currentTick < tick) {
+            currentTick++;
+            for (int level = LEVELS - 1; level >= 1; level--) {
+                if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+                    cascade(slots[level][digit(currentTick, level)]);
+                }
+            }
+            drain(slots[0][(int) (currentTick & MASK)], expire);
+            drain(expired, expire);
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        if (entry.deadline <= currentTick) {
+            link(expired, entry);
+            return;
+        }
+        int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(entry.deadline ^ currentTick)) / BITS;
+        link(slots[level][digit(entry.deadline, level)], entry);
+    }
+
+    private void cascade(Entry<T> head) {
+        Entry<T> entry = head.next;
+        head.next = head;
+        head.prev = head;
+        while (entry != head) {
+            Entry<T> next = entry.next;
+            place(entry);
+            entry = next;
+        }
+    }
+
+    private void drain(Entry<T> head, Consumer<Entry<T>> expire) {
+        while (head.next != head) {
+            Entry<T> entry = head.next;
+            unlink(entry);
+            byId.remove(entry.id);
+            expire.accept(entry);
+        }
+    }
+
+    private static int digit(long tick, int level) {
+        return (int) ((tick >>> (BITS * level)) & MASK);
+    }
+
+    private static <T> Entry<T> sentinel() {
+        Entry<T> head = new Entry<>(-1, -1, null);
+        head.prev = head;
+        head.next = head;
+        return head;
+    }
+
+    private static <T> void link(Entry<T> head, Entry<T> entry) {
+        entry.prev = head.prev;
+        entry.next = head;
+        head.prev.next = entry;
+        head.prev = entry;
+    }
+
+    private static <T> void unlink(Entry<T> entry) {
+        entry.prev.next = entry.next;
+        entry.next.prev = entry.prev;
+        entry.prev = null;
+        entry.next = null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.bucott.taskmanager.service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.bucott.taskmanager.model.User;
+import com.bucott.taskmanager.repository.UserAuthView;
+
+// What the auth paths need from a user: identity, password hash, security version and authority names
+public record UserCredentials(Long id, String username, String email, String password, long securityVersion, List<String> authorities) {
+
+    public UserCredentials {
+        authorities = List.copyOf(authorities);
+    }
+
+    public static UserCredentials of(User user) {
+        return new UserCredentials(user.getId(), user.getUsername(), user.getEmail(), user.getPassword(), user.getSecurityVersion(),
+                user.getRoles().stream().map(role -> role.getAuthority().name()).toList());
+    }
+
+    // Folds the one-row-per-role projection into a single value
+    public static Optional<UserCredentials> fromRows(List<UserAuthView> rows) {
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        UserAuthView first = rows.get(0);
+        List<String> authorities = rows.stream()
+                .map(UserAuthView::getAuthority)
+                .filter(Objects::nonNull)
+                .map(Enum::name)
+                .distinct()
+                .toList();
+        return Optional.of(new UserCredentials(first.getId(), first.getUsername(), first.getEmail(), first.getPassword(),
+                first.getSecurityVersion(), authorities));
+    }
+}
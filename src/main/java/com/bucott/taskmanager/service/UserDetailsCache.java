@@ -0,0 +1,154 @@
+package com.bucott.taskmanager.service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// In-process cache in front of the user lookups.
+// Entries are stored once under the username; emails are aliases pointing at that username,
+// so both identifiers resolve to the same cached entry. Concurrent misses for the same key
+// are coalesced into a single load.
+@Component
+public class UserDetailsCache implements MeterBinder {
+
+    public record CachedUser(UserDetails userDetails, String email, long securityVersion) {
+        public String username() {
+            return userDetails.getUsername();
+        }
+    }
+
+    private final boolean enabled;
+    private final AsyncCache<String, CachedUser> byUsername;
+    private final AsyncCache<String, String> identifierToUsername;
+
+    public UserDetailsCache(
+            @Value("${user-cache.enabled:true}") boolean enabled,
+            @Value("${user-cache.ttl:10m}") Duration ttl,
+            @Value("${user-cache.max-size:10000}") long maxSize) {
+        this.enabled = enabled;
+        this.byUsername = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        this.identifierToUsername = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+
+    public CachedUser getByUsername(String username, Function<String, CachedUser> loader) {
+        if (!enabled) {
+            return loader.apply(username);
+        }
+        CachedUser cached = getOrLoad(byUsername, username, loader);
+        if (cached.email() != null) {
+            identifierToUsername.synchronous().put(cached.email(), cached.username());
+        }
+        return cached;
+    }
+
+    public CachedUser getByEmail(String email, Function<String, CachedUser> loader) {
+        if (!enabled) {
+            return loader.apply(email);
+        }
+        return getByAlias(email, loader);
+    }
+
+    public CachedUser getByUsernameOrEmail(String identifier, Function<String, CachedUser> loader) {
+        if (!enabled) {
+            return loader.apply(identifier);
+        }
+        CachedUser cached = byUsername.synchronous().getIfPresent(identifier);
+        if (cached != null) {
+            return cached;
+        }
+        return getByAlias(identifier, loader);
+    }
+
+    // Drop every entry for a user; call after registration or any role or password change
+    public void invalidate(String username, String email) {
+        if (username != null) {
+            byUsername.synchronous().invalidate(username);
+        }
+        if (email != null) {
+            identifierToUsername.synchronous().invalidate(email);
+        }
+    }
+
+    public void invalidateAll() {
+        byUsername.synchronous().invalidateAll();
+        identifierToUsername.synchronous().invalidateAll();
+    }
+
+    public long size() {
+        return byUsername.synchronous().estimatedSize();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byUsername.synchronous(), "users.byUsername");
+        CaffeineCacheMetrics.monitor(registry, identifierToUsername.synchronous(), "users.byIdentifier");
+    }
+
+    private CachedUser getByAlias(String identifier, Function<String, CachedUser> loader) {
+        String username = identifierToUsername.synchronous().getIfPresent(identifier);
+        if (username != null) {
+            CachedUser cached = byUsername.synchronous().getIfPresent(username);
+            if (cached != null && (identifier.equals(cached.email()) || identifier.equals(cached.username()))) {
+                return cached;
+            }
+            // alias points at an entry that no longer matches, resolve it again
+            identifierToUsername.synchronous().invalidate(identifier);
+        }
+
+        CachedUser[] loaded = new CachedUser[1];
+        username = getOrLoad(identifierToUsername, identifier, key -> {
+            CachedUser user = loader.apply(key);
+            byUsername.synchronous().put(user.username(), user);
+            loaded[0] = user;
+            return user.username();
+        });
+        if (loaded[0] != null) {
+            return loaded[0];
+        }
+        return getOrLoad(byUsername, username, key -> loader.apply(identifier));
+    }
+
+    // Single-flight load: the first caller for a key installs an empty future and runs the loader
+    // itself, everyone else waits on that future. The loader runs outside the map's internal lock,
+    // so a blocking DB call never holds a monitor (which would pin a virtual thread's carrier).
+    private static <V> V getOrLoad(AsyncCache<String, V> cache, String key, Function<String, V> loader) {
+        CompletableFuture<V> pending = new CompletableFuture<>();
+        CompletableFuture<V> result = cache.get(key, (k, executor) -> pending);
+        if (result == pending) {
+            try {
+                pending.complete(loader.apply(key));
+            } catch (RuntimeException e) {
+                pending.completeExceptionally(e);
+            }
+        }
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
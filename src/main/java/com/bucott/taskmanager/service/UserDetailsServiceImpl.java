@@ -1,7 +1,14 @@
 package com.bucott.taskmanager.service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -9,6 +16,7 @@ import org.springframework.stereotype.Service;
 
 import com.bucott.taskmanager.dto.auth.LoginRequestDTO;
 import com.bucott.taskmanager.dto.auth.LoginResponseDTO;
+import com.bucott.taskmanager.dto.auth.RefreshRequestDTO;
 import com.bucott.taskmanager.dto.auth.RegisterRequestDTO;
 import com.bucott.taskmanager.dto.auth.RegisterResponseDTO;
 import com.bucott.taskmanager.dto.user.UserInfoDTO;
@@ -16,10 +24,15 @@ import com.bucott.taskmanager.exception.AuthException;
 import com.bucott.taskmanager.exception.InvalidInputException;
 import com.bucott.taskmanager.exception.UsernameOrEmailNotFoundException;
 import com.bucott.taskmanager.model.Authority;
-import com.bucott.taskmanager.model.Role;
 import com.bucott.taskmanager.model.User;
 import com.bucott.taskmanager.repository.UserRepository;
+import com.bucott.taskmanager.security.AuthenticatedUser;
+import com.bucott.taskmanager.security.TokenRevocationStore;
+import com.bucott.taskmanager.service.RefreshTokenService.IssuedRefreshToken;
+import com.bucott.taskmanager.service.RefreshTokenService.Rotation;
+import com.bucott.taskmanager.service.UserDetailsCache.CachedUser;
 import com.bucott.taskmanager.util.JwtUtil;
+import com.bucott.taskmanager.util.ParsedToken;
 
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
@@ -31,80 +44,115 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         private static final Logger logger = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
         private static final String AUTH_COOKIE_NAME = "authToken";
         private static final int COOKIE_MAX_AGE = 7 * 24 * 60 * 60;
+        private static final String REFRESH_COOKIE_NAME = "refreshToken";
+        // sent only to the auth endpoints, never with ordinary API calls
+        private static final String REFRESH_COOKIE_PATH = "/api/v1/auth";
 
         private final UserRepository userRepository;
         private final JwtUtil jwtUtil;
         private PasswordEncoder passwordEncoder;
-
-        public UserDetailsServiceImpl(UserRepository userRepository, JwtUtil jwtUtil, PasswordEncoder passwordEncoder) {
+        private final UserDetailsCache userDetailsCache;
+        private final RoleRegistry roleRegistry;
+        private final PasswordUpgradeService passwordUpgradeService;
+        private final TokenRevocationStore revocationStore;
+        private final RefreshTokenService refreshTokenService;
+
+        public UserDetailsServiceImpl(UserRepository userRepository, JwtUtil jwtUtil, PasswordEncoder passwordEncoder,
+                        UserDetailsCache userDetailsCache, RoleRegistry roleRegistry,
+                        PasswordUpgradeService passwordUpgradeService, TokenRevocationStore revocationStore,
+                        RefreshTokenService refreshTokenService) {
                 this.jwtUtil = jwtUtil;
                 this.userRepository = userRepository;
                 this.passwordEncoder = passwordEncoder;
+                this.userDetailsCache = userDetailsCache;
+                this.roleRegistry = roleRegistry;
+                this.passwordUpgradeService = passwordUpgradeService;
+                this.revocationStore = revocationStore;
+                this.refreshTokenService = refreshTokenService;
         }
 
         @Override
         public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-                logger.info("Attempting to load user by username: {}", username);
-                User user = userRepository.findByUsername(username)
+                return userDetailsCache.getByUsername(username, this::fetchByUsername).userDetails();
+        }
+
+        @Override
+        public UserDetails loadUserByEmail(String email) throws UsernameNotFoundException {
+                return userDetailsCache.getByEmail(email, this::fetchByEmail).userDetails();
+        }
+
+        @Override
+        public UserDetails loadUserByUsernameOrEmail(String identifier) throws UsernameOrEmailNotFoundException {
+                return userDetailsCache.getByUsernameOrEmail(identifier, this::fetchByUsernameOrEmail).userDetails();
+        }
+
+        private CachedUser fetchByUsername(String username) {
+                logger.debug("Attempting to load user by username: {}", username);
+                UserCredentials user = UserCredentials.fromRows(userRepository.findAuthViewsByUsername(username))
                                 .orElseThrow(() -> new UsernameNotFoundException(
                                                 "User not found with username: " + username));
-                logger.info("User found: {}", user);
 
-                return org.springframework.security.core.userdetails.User.builder()
-                                .username(user.getUsername())
-                                .authorities(user.getRoles().stream()
-                                                .map(role -> role.getAuthority().name())
-                                                .toArray(String[]::new))
-                                .build();
+                return toCachedUser(user);
         }
 
-        @Override
-        public UserDetails loadUserByEmail(String email) throws UsernameNotFoundException {
-                logger.info("Attempting to load user by email: {}", email);
-                User user = userRepository.findByEmail(email)
+        private CachedUser fetchByEmail(String email) {
+                logger.debug("Attempting to load user by email: {}", email);
+                UserCredentials user = UserCredentials.fromRows(userRepository.findAuthViewsByEmail(email))
                                 .orElseThrow(() -> new UsernameNotFoundException(
                                                 "User not found with email: " + email));
-                logger.info("User found: {}", user);
 
-                return org.springframework.security.core.userdetails.User.builder()
-                                .username(user.getUsername())
-                                .authorities(user.getRoles().stream()
-                                                .map(role -> role.getAuthority().name())
-                                                .toArray(String[]::new))
-                                .build();
+                return toCachedUser(user);
         }
 
-        @Override
-        public UserDetails loadUserByUsernameOrEmail(String identifier) throws UsernameOrEmailNotFoundException {
-                User user = userRepository.findByUsernameOrEmail(identifier)
+        private CachedUser fetchByUsernameOrEmail(String identifier) {
+                UserCredentials user = UserCredentials.fromRows(userRepository.findAuthViewsByUsernameOrEmail(identifier))
                                 .orElseThrow(() -> new UsernameNotFoundException(
                                                 "User not found with username or email: " + identifier));
 
-                return org.springframework.security.core.userdetails.User.builder()
-                                .username(user.getUsername())
-                                .authorities(user.getRoles().stream()
-                                                .map(role -> role.getAuthority().name())
-                                                .toArray(String[]::new))
-                                .build();
+                return toCachedUser(user);
+        }
+
+        // Stateless path: build the principal purely from verified token claims
+        public UserDetails loadUserFromClaims(ParsedToken parsedToken) {
+                return new AuthenticatedUser(parsedToken.userId(), parsedToken.subject(), "",
+                                AuthorityUtils.createAuthorityList(parsedToken.authorities()));
+        }
+
+        // Revalidation path: reload the user and reject tokens issued before a role or password change
+        public UserDetails loadUserForToken(ParsedToken parsedToken) throws UsernameNotFoundException {
+                CachedUser user = userDetailsCache.getByUsername(parsedToken.subject(), this::fetchByUsername);
+
+                if (parsedToken.securityVersion() != null
+                                && parsedToken.securityVersion() != user.securityVersion()) {
+                        throw new AuthException("Token is outdated for user: " + parsedToken.subject());
+                }
+                return user.userDetails();
         }
 
         @Override
         public LoginResponseDTO authenticate(LoginRequestDTO requestDto, HttpServletResponse response) throws UsernameOrEmailNotFoundException {
-                User user = userRepository.findByUsernameOrEmail(requestDto.getUsernameOrEmail())
+                UserCredentials user = UserCredentials.fromRows(
+                                userRepository.findAuthViewsByUsernameOrEmail(requestDto.getUsernameOrEmail()))
                                 .orElseThrow(() -> new UsernameOrEmailNotFoundException(
                                                 "User not found with username or email: "
                                                                 + requestDto.getUsernameOrEmail()));
 
-                if (!passwordEncoder.matches(requestDto.getPassword(), user.getPassword())) {
+                if (!passwordEncoder.matches(requestDto.getPassword(), user.password())) {
                         throw new AuthException("Invalid password for user: " + requestDto.getUsernameOrEmail());
                 }
+                if (passwordUpgradeService.needsUpgrade(user.password())) {
+                        passwordUpgradeService.upgrade(user.username(), user.email(), requestDto.getPassword(),
+                                        user.password());
+                }
 
-                String token = jwtUtil.generateToken(user.getUsername(), user.getEmail());
+                String token = generateToken(user);
+                IssuedRefreshToken refreshToken = refreshTokenService.issue(user.id(), user.securityVersion());
 
                 return LoginResponseDTO.builder()
-                                .username(user.getUsername())
-                                .email(user.getEmail())
+                                .username(user.username())
+                                .email(user.email())
                                 .token(token)
+                                .refreshToken(refreshToken.value())
                                 .build();
         }
 
@@ -112,51 +160,136 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         public RegisterResponseDTO register(RegisterRequestDTO requestDto, HttpServletResponse response) throws InvalidInputException {
                 logger.debug("Registering user with username: {} - email {}", requestDto.getUsername(),
                                 requestDto.getEmail());
-                if (userRepository.findByUsername(requestDto.getUsername()).isPresent()) {
-                        throw new InvalidInputException("Username already exists");
-                }
-                if (userRepository.findByEmail(requestDto.getEmail()).isPresent()) {
-                        throw new InvalidInputException("Email already exists");
-                }
-
+                // cheap checks first, before any hashing or DB work
                 if (!requestDto.getPassword().equals(requestDto.getConfirmPassword())) {
                         throw new InvalidInputException("Passwords do not match");
                 }
                 String encodedPassword = passwordEncoder.encode(requestDto.getPassword());
 
                 User user = new User(requestDto.getUsername(), requestDto.getEmail(), encodedPassword);
-                user.getRoles().add(new Role(Authority.ROLE_USER));
-                user = userRepository.save(user);
+                user.getRoles().add(roleRegistry.get(Authority.ROLE_USER));
+                try {
+                        // a single insert; the unique indexes on username and email reject duplicates
+                        user = userRepository.saveAndFlush(user);
+                } catch (DataIntegrityViolationException e) {
+                        throw translateDuplicateUser(e);
+                }
+                userDetailsCache.invalidate(user.getUsername(), user.getEmail());
 
-                String token = jwtUtil.generateToken(user.getUsername(), user.getEmail());
+                String token = generateToken(UserCredentials.of(user));
+                IssuedRefreshToken refreshToken = refreshTokenService.issue(user.getId(), user.getSecurityVersion());
 
                 setAuthCookie(response, token);
+                setRefreshCookie(response, refreshToken);
 
                 return RegisterResponseDTO.builder()
                                 .username(user.getUsername())
                                 .email(user.getEmail())
                                 .token(token)
+                                .refreshToken(refreshToken.value())
+                                .build();
+        }
+
+        private InvalidInputException translateDuplicateUser(DataIntegrityViolationException e) {
+                String violation = constraintName(e).toLowerCase(Locale.ROOT);
+                if (violation.contains(User.USERNAME_INDEX)) {
+                        return new InvalidInputException("Username already exists");
+                }
+                if (violation.contains(User.EMAIL_INDEX)) {
+                        return new InvalidInputException("Email already exists");
+                }
+                logger.warn("Unexpected constraint violation during registration: {}", violation);
+                return new InvalidInputException("User already exists");
+        }
+
+        private String constraintName(DataIntegrityViolationException e) {
+                for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                        if (cause instanceof ConstraintViolationException violation
+                                        && violation.getConstraintName() != null) {
+                                return violation.getConstraintName();
+                        }
+                }
+                return String.valueOf(e.getMostSpecificCause().getMessage());
+        }
+
+        private CachedUser toCachedUser(UserCredentials user) {
+                return new CachedUser(toUserDetails(user), user.email(), user.securityVersion());
+        }
+
+        private UserDetails toUserDetails(UserCredentials user) {
+                return new AuthenticatedUser(user.id(), user.username(), user.password(),
+                                AuthorityUtils.createAuthorityList(user.authorities()));
+        }
+
+        private String generateToken(UserCredentials user) {
+                return jwtUtil.generateToken(user.id(), user.username(), user.email(), user.authorities(),
+                                user.securityVersion());
+        }
+
+        // Rotates the refresh token from the body or the refreshToken cookie into a new access and refresh token.
+        // The access token comes from the user's current roles, so nothing is checked per request until it expires.
+        public LoginResponseDTO refresh(RefreshRequestDTO requestDto, HttpServletRequest request, HttpServletResponse response) {
+                Rotation rotation = refreshTokenService.rotate(presentedRefreshToken(requestDto, request));
+                UserCredentials user = rotation.user();
+                String token = generateToken(user);
+
+                setAuthCookie(response, token);
+                setRefreshCookie(response, rotation.refreshToken());
+
+                return LoginResponseDTO.builder()
+                                .username(user.username())
+                                .email(user.email())
+                                .token(token)
+                                .refreshToken(rotation.refreshToken().value())
                                 .build();
         }
 
-        public void logout(HttpServletResponse response) {
+        // Revokes the presented access token, header or cookie, so it stops working before it expires,
+        // and ends the refresh token family so the session cannot be renewed
+        public void logout(RefreshRequestDTO requestDto, HttpServletRequest request, HttpServletResponse response) {
+                String authHeader = request.getHeader("Authorization");
+                String token = authHeader != null && authHeader.startsWith("Bearer ")
+                                ? authHeader.substring(7)
+                                : extractTokenFromCookie(request.getCookies());
+                if (token != null && !token.isEmpty()) {
+                        try {
+                                revocationStore.revoke(jwtUtil.verify(token));
+                        } catch (Exception e) {
+                                // invalid or expired tokens need no revoking
+                                logger.debug("Ignoring unusable token on logout: {}", e.getMessage());
+                        }
+                }
+                refreshTokenService.revoke(presentedRefreshToken(requestDto, request));
                 clearAuthCookie(response);
+                clearRefreshCookie(response);
+        }
+
+        private String presentedRefreshToken(RefreshRequestDTO requestDto, HttpServletRequest request) {
+                if (requestDto != null && requestDto.getRefreshToken() != null) {
+                        return requestDto.getRefreshToken();
+                }
+                return extractCookie(request.getCookies(), REFRESH_COOKIE_NAME);
+        }
+
+        // Signature, expiry and revocation check for the cookie-based endpoints
+        private ParsedToken verifyUnrevoked(String token) {
+                ParsedToken parsedToken = jwtUtil.verify(token);
+                if (revocationStore.isRevoked(parsedToken)) {
+                        throw new AuthException("Token has been revoked");
+                }
+                return parsedToken;
         }
 
         public UserInfoDTO getCurrentUser(HttpServletRequest request) {
                 String token = extractTokenFromCookie(request.getCookies());
                 if (token != null && !token.isEmpty()) {
                         try {
-                                String username = jwtUtil.extractUsername(token);
-                                String email = jwtUtil.extractEmail(token);
-
-                                if (jwtUtil.validateToken(token, username)) {
-                                        return UserInfoDTO.builder()
-                                                        .username(username)
-                                                        .email(email)
-                                                        .authenticated(true)
-                                                        .build();
-                                }
+                                ParsedToken parsedToken = verifyUnrevoked(token);
+                                return UserInfoDTO.builder()
+                                                .username(parsedToken.subject())
+                                                .email(parsedToken.email())
+                                                .authenticated(true)
+                                                .build();
                         } catch (Exception e) {
                                 logger.error("Error extracting user info from token: {}", e.getMessage());
                         }
@@ -188,10 +321,34 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 logger.debug("Authentication cookie cleared");
         }
 
+        private void setRefreshCookie(HttpServletResponse response, IssuedRefreshToken refreshToken) {
+                Cookie cookie = new Cookie(REFRESH_COOKIE_NAME, refreshToken.value());
+                cookie.setHttpOnly(true);
+                cookie.setSecure(false);
+                cookie.setPath(REFRESH_COOKIE_PATH);
+                cookie.setMaxAge((int) Math.max(0, Duration.between(Instant.now(), refreshToken.expiresAt()).toSeconds()));
+
+                response.addCookie(cookie);
+        }
+
+        private void clearRefreshCookie(HttpServletResponse response) {
+                Cookie cookie = new Cookie(REFRESH_COOKIE_NAME, "");
+                cookie.setHttpOnly(true);
+                cookie.setSecure(false);
+                cookie.setPath(REFRESH_COOKIE_PATH);
+                cookie.setMaxAge(0);
+
+                response.addCookie(cookie);
+        }
+
         public String extractTokenFromCookie(Cookie[] cookies) {
+                return extractCookie(cookies, AUTH_COOKIE_NAME);
+        }
+
+        private static String extractCookie(Cookie[] cookies, String name) {
                 if (cookies != null) {
                         for (Cookie cookie : cookies) {
-                                if (AUTH_COOKIE_NAME.equals(cookie.getName())) {
+                                if (name.equals(cookie.getName())) {
                                         return cookie.getValue();
                                 }
                         }
@@ -203,8 +360,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 String token = extractTokenFromCookie(cookies);
                 if (token != null && !token.isEmpty()) {
                         try {
-                                String username = jwtUtil.extractUsername(token);
-                                return jwtUtil.validateToken(token, username);
+                                verifyUnrevoked(token);
+                                return true;
                         } catch (Exception e) {
                                 logger.error("Error validating token from cookie: {}", e.getMessage());
                                 return false;
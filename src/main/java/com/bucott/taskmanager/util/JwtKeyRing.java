@@ -0,0 +1,279 @@
+package com.bucott.taskmanager.util;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+// The keys access tokens are signed and verified with, indexed by kid.
+// ES256 keys live in a directory as <kid>.key (PKCS#8) and <kid>.pub (X.509) PEM pairs. Every .pub is
+// trusted for verification and published through the JWKS endpoint; tokens are signed with the newest
+// complete pair whose .pub has been there for publishDelay, so verifiers that cache the JWKS have seen
+// a key before any token carries its kid. Rotating is adding a pair, and later deleting the old .key
+// (its .pub until the last token signed with it has expired). The directory is rescanned periodically
+// and parsed keys are reused until a file changes. HS256 with a single shared secret is kept for
+// deployments that have not moved yet; its tokens carry no kid.
+public class JwtKeyRing {
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+    private static final String PRIVATE_SUFFIX = ".key";
+    private static final String PUBLIC_SUFFIX = ".pub";
+    private static final DateTimeFormatter KID_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    public record SigningKey(String kid, Key key) {
+    }
+
+    // one consistent view of the directory, swapped whole on reload
+    private record State(String fingerprint, Map<String, PublicKey> publicKeys, SigningKey signingKey,
+            Map<String, Object> jwks, String jwksETag) {
+    }
+
+    private final SignatureAlgorithm algorithm;
+    private final Path directory;
+    private final Duration publishDelay;
+    private volatile State state;
+
+    private JwtKeyRing(SignatureAlgorithm algorithm, Path directory, Duration publishDelay, State state) {
+        this.algorithm = algorithm;
+        this.directory = directory;
+        this.publishDelay = publishDelay;
+        this.state = state;
+    }
+
+    public static JwtKeyRing hmac(String secretKey) {
+        Key key = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        Map<String, Object> jwks = Map.of("keys", List.of());
+        return new JwtKeyRing(SignatureAlgorithm.HS256, null, Duration.ZERO,
+                new State("", Map.of(), new SigningKey(null, key), jwks, "\"empty\""));
+    }
+
+    // Loads the ES256 pairs in directory, generating a first one if there is none
+    public static JwtKeyRing ecDirectory(Path directory, Duration publishDelay) {
+        JwtKeyRing ring = new JwtKeyRing(SignatureAlgorithm.ES256, directory, publishDelay, null);
+        ring.reload();
+        return ring;
+    }
+
+    public SignatureAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    public SigningKey signingKey() {
+        return state.signingKey();
+    }
+
+    // Throws JwtException for a kid that is not in the ring, or an algorithm other than the ring's
+    public Key verificationKey(String kid, String algorithmName) {
+        if (!algorithm.getValue().equals(algorithmName)) {
+            // never let the token header pick the algorithm, e.g. HS256 keyed with a public key
+            throw new JwtException("Unexpected signing algorithm: " + algorithmName);
+        }
+        State current = state;
+        if (algorithm.isHmac()) {
+            return current.signingKey().key();
+        }
+        PublicKey key = kid != null ? current.publicKeys().get(kid) : null;
+        if (key == null) {
+            throw new JwtException("Unknown signing key: " + kid);
+        }
+        return key;
+    }
+
+    // RFC 7517 key set of every verification key, with an ETag that changes with it
+    public Map<String, Object> jwks() {
+        return state.jwks();
+    }
+
+    public String jwksETag() {
+        return state.jwksETag();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.signing.reload-interval:1m}")
+    public void reload() {
+        if (directory == null) {
+            return;
+        }
+        try {
+            state = load(Instant.now());
+        } catch (IOException | GeneralSecurityException e) {
+            if (state == null) {
+                throw new IllegalStateException("Cannot load signing keys from " + directory, e);
+            }
+            logger.error("Could not reload signing keys from {}, keeping the current ones: {}", directory, e.getMessage());
+        }
+    }
+
+    private State load(Instant now) throws IOException, GeneralSecurityException {
+        Files.createDirectories(directory);
+        Map<String, Path> privateFiles = new TreeMap<>();
+        Map<String, Path> publicFiles = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(PRIVATE_SUFFIX)) {
+                    privateFiles.put(name.substring(0, name.length() - PRIVATE_SUFFIX.length()), file);
+                } else if (name.endsWith(PUBLIC_SUFFIX)) {
+                    publicFiles.put(name.substring(0, name.length() - PUBLIC_SUFFIX.length()), file);
+                }
+            }
+        }
+        if (privateFiles.isEmpty()) {
+            generate(now);
+            return load(now);
+        }
+
+        // the newest pair that verifiers have had time to see, or the newest of all if none has
+        String newest = null;
+        String newestPublished = null;
+        for (String kid : privateFiles.keySet()) {
+            Path publicFile = publicFiles.get(kid);
+            if (publicFile == null) {
+                logger.warn("Ignoring {}{}: no matching {}{}", kid, PRIVATE_SUFFIX, kid, PUBLIC_SUFFIX);
+                continue;
+            }
+            newest = kid;
+            if (!Files.getLastModifiedTime(publicFile).toInstant().plus(publishDelay).isAfter(now)) {
+                newestPublished = kid;
+            }
+        }
+        if (newest == null) {
+            throw new GeneralSecurityException("No complete key pair in " + directory);
+        }
+        String activeKid = newestPublished != null ? newestPublished : newest;
+
+        StringBuilder fingerprint = new StringBuilder();
+        for (Map.Entry<String, Path> entry : publicFiles.entrySet()) {
+            fingerprint.append(entry.getKey()).append('@')
+                    .append(Files.getLastModifiedTime(entry.getValue()).toMillis()).append(';');
+        }
+        fingerprint.append(activeKid).append('@')
+                .append(Files.getLastModifiedTime(privateFiles.get(activeKid)).toMillis());
+        State current = state;
+        if (current != null && current.fingerprint().contentEquals(fingerprint)) {
+            return current;
+        }
+
+        Map<String, PublicKey> publicKeys = new LinkedHashMap<>();
+        for (Map.Entry<String, Path> entry : publicFiles.entrySet()) {
+            publicKeys.put(entry.getKey(), KeyFactory.getInstance("EC")
+                    .generatePublic(new X509EncodedKeySpec(readPem(entry.getValue()))));
+        }
+        PrivateKey privateKey = KeyFactory.getInstance("EC")
+                .generatePrivate(new PKCS8EncodedKeySpec(readPem(privateFiles.get(activeKid))));
+        if (current == null || !activeKid.equals(current.signingKey().kid())) {
+            logger.info("Signing access tokens with key {} ({} verification keys)", activeKid, publicKeys.size());
+        }
+        List<Map<String, Object>> keys = publicKeys.entrySet().stream()
+                .map(entry -> toJwk(entry.getKey(), (ECPublicKey) entry.getValue()))
+                .toList();
+        return new State(fingerprint.toString(), Map.copyOf(publicKeys), new SigningKey(activeKid, privateKey),
+                Map.of("keys", keys), eTag(keys));
+    }
+
+    private void generate(Instant now) throws IOException, GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair pair = generator.generateKeyPair();
+        String kid = KID_FORMAT.format(now);
+
+        // the public half first, so a scan never finds a private key without it
+        writePem(directory.resolve(kid + PUBLIC_SUFFIX), "PUBLIC KEY", pair.getPublic().getEncoded(), false);
+        writePem(directory.resolve(kid + PRIVATE_SUFFIX), "PRIVATE KEY", pair.getPrivate().getEncoded(), true);
+        logger.warn("Generated signing key {} in {}; every instance must share this key directory", kid, directory);
+    }
+
+    private static Map<String, Object> toJwk(String kid, ECPublicKey key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("use", "sig");
+        jwk.put("alg", SignatureAlgorithm.ES256.getValue());
+        jwk.put("kid", kid);
+        jwk.put("x", coordinate(key.getW().getAffineX()));
+        jwk.put("y", coordinate(key.getW().getAffineY()));
+        return jwk;
+    }
+
+    // fixed 32-byte big-endian encoding: drop BigInteger's sign byte, left-pad short values
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int length = Math.min(bytes.length, fixed.length);
+        System.arraycopy(bytes, bytes.length - length, fixed, fixed.length - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+
+    // Hashes every member of every published key, coordinates included, so the tag changes with any key
+    // material and not just with the set of kids
+    private static String eTag(List<Map<String, Object>> keys) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            for (Map<String, Object> jwk : keys) {
+                for (Map.Entry<String, Object> member : jwk.entrySet()) {
+                    sha256.update((member.getKey() + "=" + member.getValue() + "\n").getBytes(StandardCharsets.UTF_8));
+                }
+                sha256.update((byte) 0);
+            }
+            return "\"" + HexFormat.of().formatHex(Arrays.copyOf(sha256.digest(), 8)) + "\"";
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] readPem(Path file) throws IOException {
+        StringBuilder base64 = new StringBuilder();
+        for (String line : Files.readAllLines(file, StandardCharsets.US_ASCII)) {
+            if (!line.startsWith("-----")) {
+                base64.append(line.trim());
+            }
+        }
+        return Base64.getDecoder().decode(base64.toString());
+    }
+
+    private static void writePem(Path file, String type, byte[] der, boolean secret) throws IOException {
+        String pem = "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+        if (secret && FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        }
+        Files.writeString(file, pem, StandardCharsets.US_ASCII,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+}
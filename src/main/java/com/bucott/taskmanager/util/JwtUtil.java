@@ -1,33 +1,65 @@
 package com.bucott.taskmanager.util;
 
-import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import io.github.cdimascio.dotenv.Dotenv;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 
 @Component
 public class JwtUtil {
-    private final String SECRET_KEY;
-    private final long EXPIRATION_TIME = 86400000; // 1 day in milliseconds)
+    // access tokens are short-lived and verified statelessly; sessions continue through refresh tokens
+    private static final Duration DEFAULT_EXPIRATION = Duration.ofMinutes(15);
+    private final long EXPIRATION_TIME;
+    private static final String AUTHORITIES_CLAIM = "roles";
+    private static final String SECURITY_VERSION_CLAIM = "ver";
+    private static final String USER_ID_CLAIM = "uid";
 
-    public JwtUtil() {
-        Dotenv dotenv = Dotenv.load();
-        this.SECRET_KEY = dotenv.get("JWT_SECRET_KEY");
+    // the parser is immutable and thread-safe, so build it once; it asks the key ring for each token's key
+    private final JwtKeyRing keyRing;
+    private final JwtParser parser;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    public JwtUtil(JwtKeyRing keyRing, VerifiedTokenCache verifiedTokenCache,
+            @Value("${jwt.access-token-ttl:15m}") Duration accessTokenTtl) {
+        this.keyRing = keyRing;
+        this.EXPIRATION_TIME = accessTokenTtl.toMillis();
+        this.parser = Jwts.parserBuilder()
+            .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                @Override
+                public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                    return keyRing.verificationKey(header.getKeyId(), header.getAlgorithm());
+                }
+            })
+            .build();
+        this.verifiedTokenCache = verifiedTokenCache;
+    }
+
+    // HS256 with a shared secret
+    public JwtUtil(String secretKey, VerifiedTokenCache verifiedTokenCache) {
+        this(JwtKeyRing.hmac(secretKey), verifiedTokenCache, DEFAULT_EXPIRATION);
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = SECRET_KEY.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public Duration getAccessTokenTtl() {
+        return Duration.ofMillis(EXPIRATION_TIME);
     }
 
     // Generate a token with a username as a subject
@@ -37,24 +69,80 @@ public class JwtUtil {
         return createToken(claims, username);
     }
 
+    // Generate a token that also carries the user's id, authorities and security version,
+    // so requests can be authenticated from the claims alone
+    public String generateToken(Long userId, String username, String email, Collection<String> authorities, long securityVersion) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("email", email);
+        claims.put(USER_ID_CLAIM, userId);
+        claims.put(AUTHORITIES_CLAIM, List.copyOf(authorities));
+        claims.put(SECURITY_VERSION_CLAIM, securityVersion);
+        return createToken(claims, username);
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
-        return Jwts
-            .builder()
+        JwtKeyRing.SigningKey signingKey = keyRing.signingKey();
+        JwtBuilder builder = Jwts.builder();
+        if (signingKey.kid() != null) {
+            // lets verifiers pick the public key without trying each one
+            builder.setHeaderParam(JwsHeader.KEY_ID, signingKey.kid());
+        }
+        return builder
             .setClaims(claims)
             .setSubject(subject)
+            // a unique id, so a single token can be revoked before it expires
+            .setId(UUID.randomUUID().toString())
             .setIssuedAt(new Date(System.currentTimeMillis()))
             .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-            .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+            .signWith(signingKey.key(), keyRing.algorithm())
             .compact();
     }
 
+    // Verify the signature and expiry once and return the parsed token.
+    // Throws JwtException if the token is malformed, tampered with or expired.
+    public ParsedToken verify(String token) {
+        ParsedToken cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = extractAllClaims(token);
+        if (claims.getSubject() == null || claims.getExpiration() == null) {
+            throw new JwtException("Token is missing required claims");
+        }
+        ParsedToken parsed = new ParsedToken(
+            claims.getSubject(),
+            extractLong(claims, USER_ID_CLAIM),
+            claims.get("email", String.class),
+            claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+            claims.getExpiration().toInstant(),
+            extractAuthorities(claims),
+            extractLong(claims, SECURITY_VERSION_CLAIM),
+            claims.getId());
+        verifiedTokenCache.put(token, parsed);
+        return parsed;
+    }
+
+    private List<String> extractAuthorities(Claims claims) {
+        Object value = claims.get(AUTHORITIES_CLAIM);
+        if (!(value instanceof List<?> list)) {
+            return null;
+        }
+        return list.stream().map(String::valueOf).toList();
+    }
+
+    private Long extractLong(Claims claims, String name) {
+        Object value = claims.get(name);
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
     // Extract username from token
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).subject();
     }
 
     public String extractEmail(String token) {
-        return extractClaim(token, claims -> claims.get("email", String.class));
+        return verify(token).email();
     }
 
     // Extract a specific claim using a claims resolver function
@@ -64,22 +152,14 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-            .parserBuilder()
-            .setSigningKey(getSigningKey())
-            .build()
+        return parser
             .parseClaimsJws(token)
             .getBody();
     }
 
     // Validate token: Check the username and if token is not expired
     public boolean validateToken(String token, String username) {
-        String tokenUsername = extractUsername(token);
-        return (tokenUsername.equals(username) && !isTokenExpired(token));
-    }
-
-    private boolean isTokenExpired(String token) {
-        final Date expiration = extractClaim(token, Claims::getExpiration);
-        return expiration.before(new Date());
+        ParsedToken parsed = verify(token);
+        return (parsed.subject().equals(username) && !parsed.isExpired(Instant.now()));
     }
 }
@@ -0,0 +1,35 @@
+package com.bucott.taskmanager.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// Immutable view of a JWT whose signature has already been verified.
+// userId, authorities, securityVersion and tokenId are null for tokens issued before they were embedded.
+public record ParsedToken(
+        String subject,
+        Long userId,
+        String email,
+        Instant issuedAt,
+        Instant expiresAt,
+        List<String> authorities,
+        Long securityVersion,
+        String tokenId) {
+
+    public ParsedToken {
+        authorities = authorities != null ? List.copyOf(authorities) : null;
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    public boolean hasEmbeddedAuthorities() {
+        return userId != null && authorities != null && securityVersion != null;
+    }
+
+    // A token is fresh while it is younger than maxStaleness, so its claims can be trusted without a DB check
+    public boolean isFresh(Instant now, Duration maxStaleness) {
+        return issuedAt != null && issuedAt.plus(maxStaleness).isAfter(now);
+    }
+}
@@ -0,0 +1,101 @@
+package com.bucott.taskmanager.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Bounded cache of tokens that already passed signature verification.
+// Keyed by the SHA-256 digest of the compact token so raw tokens are never retained,
+// and each entry expires no later than the token itself.
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+    private final boolean enabled;
+    private final Cache<ByteBuffer, ParsedToken> cache;
+
+    public VerifiedTokenCache(
+            @Value("${jwt.verification-cache.enabled:true}") boolean enabled,
+            @Value("${jwt.verification-cache.max-size:10000}") long maxSize) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+    }
+
+    public ParsedToken get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        ParsedToken parsed = cache.getIfPresent(digest(token));
+        if (parsed != null && parsed.isExpired(Instant.now())) {
+            return null;
+        }
+        return parsed;
+    }
+
+    public void put(String token, ParsedToken parsed) {
+        if (enabled) {
+            cache.put(digest(token), parsed);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "jwt.verifiedTokens");
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class TokenExpiry implements Expiry<ByteBuffer, ParsedToken> {
+        @Override
+        public long expireAfterCreate(ByteBuffer key, ParsedToken value, long currentTime) {
+            Duration remaining = Duration.between(Instant.now(), value.expiresAt());
+            return Math.max(0, remaining.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, ParsedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, ParsedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.bucott.taskmanager;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Users and tasks created through the API, shared by the MockMvc tests. Every user is new, so tests can
+// share one application context without seeing each other's tasks.
+public class ApiFixtures {
+    private static final String BEARER = "Bearer ";
+
+    private final MockMvc mockMvc;
+    private final ObjectMapper objectMapper;
+
+    public ApiFixtures(MockMvc mockMvc, ObjectMapper objectMapper) {
+        this.mockMvc = mockMvc;
+        this.objectMapper = objectMapper;
+    }
+
+    // Returns the Authorization header value for the new user
+    public String registerUser() throws Exception {
+        String username = "user" + UUID.randomUUID().toString().substring(0, 8);
+        String body = objectMapper.writeValueAsString(Map.of(
+                "username", username,
+                "email", username + "@example.com",
+                "password", "secret123",
+                "confirmPassword", "secret123"));
+        String response = mockMvc.perform(post("/api/v1/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return BEARER + objectMapper.readTree(response).get("token").asText();
+    }
+
+    // The access token alone, e.g. for the authToken cookie
+    public static String token(String auth) {
+        return auth.substring(BEARER.length());
+    }
+
+    public long createTask(String auth, String title) throws Exception {
+        return createTask(auth, title, null);
+    }
+
+    public long createTask(String auth, String title, Instant dueDate) throws Exception {
+        Map<String, Object> task = new HashMap<>();
+        task.put("title", title);
+        task.put("dueDate", dueDate);
+        String response = mockMvc.perform(post("/api/v1/tasks")
+                        .header("Authorization", auth)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(task)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+}
@@ -0,0 +1,243 @@
+package com.bucott.taskmanager.controller;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.bucott.taskmanager.model.User;
+import com.bucott.taskmanager.repository.RefreshTokenRepository;
+import com.bucott.taskmanager.repository.UserRepository;
+import com.bucott.taskmanager.service.RefreshTokenService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.Cookie;
+
+@SpringBootTest(properties = {"rate-limit.enabled=false", "token-revocation.file="})
+@AutoConfigureMockMvc
+class AuthControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    private String register(String username, String password) throws Exception {
+        return registration(username, password).get("token").asText();
+    }
+
+    private JsonNode registration(String username, String password) throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of(
+                "username", username,
+                "email", username + "@example.com",
+                "password", password,
+                "confirmPassword", password));
+        String response = mockMvc.perform(post("/api/v1/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private MvcResult refresh(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/api/v1/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("refreshToken", refreshToken))))
+                .andReturn();
+    }
+
+    private String uniqueUsername() {
+        return "user" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Test
+    void registerThenLoginWithUsernameAndEmail() throws Exception {
+        String username = uniqueUsername();
+        register(username, "secret123");
+
+        for (String identifier : new String[] { username, username + "@example.com" }) {
+            String body = objectMapper.writeValueAsString(Map.of(
+                    "usernameOrEmail", identifier,
+                    "password", "secret123"));
+            String response = mockMvc.perform(post("/api/v1/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode json = objectMapper.readTree(response);
+            assertEquals(username, json.get("username").asText());
+        }
+    }
+
+    @Test
+    void legacyHashIsUpgradedAfterLogin() throws Exception {
+        String username = uniqueUsername();
+        String legacyHash = new BCryptPasswordEncoder(4).encode("secret123");
+        userRepository.save(new User(username, username + "@example.com", legacyHash));
+
+        String body = objectMapper.writeValueAsString(Map.of(
+                "usernameOrEmail", username,
+                "password", "secret123"));
+        mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        String stored = legacyHash;
+        while (stored.equals(legacyHash) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            stored = userRepository.findByUsername(username).orElseThrow().getPassword();
+        }
+        assertTrue(stored.startsWith("{bcrypt}"));
+    }
+
+    @Test
+    void duplicateRegistrationIsRejectedByConstraint() throws Exception {
+        String username = uniqueUsername();
+        register(username, "secret123");
+
+        String sameUsername = objectMapper.writeValueAsString(Map.of(
+                "username", username,
+                "email", "other-" + username + "@example.com",
+                "password", "secret123",
+                "confirmPassword", "secret123"));
+        mockMvc.perform(post("/api/v1/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(sameUsername))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Username already exists")));
+
+        String sameEmail = objectMapper.writeValueAsString(Map.of(
+                "username", "other" + username,
+                "email", username + "@example.com",
+                "password", "secret123",
+                "confirmPassword", "secret123"));
+        mockMvc.perform(post("/api/v1/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(sameEmail))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Email already exists")));
+    }
+
+    @Test
+    void bearerTokenAuthenticatesProtectedEndpoints() throws Exception {
+        String token = register(uniqueUsername(), "secret123");
+
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void cookieTokenIsVerified() throws Exception {
+        String username = uniqueUsername();
+        String token = register(username, "secret123");
+
+        mockMvc.perform(get("/api/v1/auth/verify").cookie(new Cookie("authToken", token)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.authenticated", is(true)));
+        mockMvc.perform(get("/api/v1/auth/me").cookie(new Cookie("authToken", token)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username", is(username)));
+    }
+
+    @Test
+    void logoutRevokesTheToken() throws Exception {
+        String token = register(uniqueUsername(), "secret123");
+        String other = register(uniqueUsername(), "secret123");
+
+        mockMvc.perform(post("/api/v1/auth/logout").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/v1/auth/verify").cookie(new Cookie("authToken", token)))
+                .andExpect(jsonPath("$.authenticated", is(false)));
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", "Bearer " + other))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void refreshRotatesAndReuseRevokesTheFamily() throws Exception {
+        String first = registration(uniqueUsername(), "secret123").get("refreshToken").asText();
+
+        MvcResult rotated = refresh(first);
+        assertEquals(200, rotated.getResponse().getStatus());
+        JsonNode json = objectMapper.readTree(rotated.getResponse().getContentAsString());
+        String second = json.get("refreshToken").asText();
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", "Bearer " + json.get("token").asText()))
+                .andExpect(status().isOk());
+
+        // replaying the rotated token ends the session, including the token that replaced it
+        assertEquals(401, refresh(first).getResponse().getStatus());
+        assertEquals(401, refresh(second).getResponse().getStatus());
+        assertEquals(401, refresh("not-a-refresh-token").getResponse().getStatus());
+    }
+
+    @Test
+    void logoutEndsRefreshAndPurgeRemovesDeadFamilies() throws Exception {
+        JsonNode registered = registration(uniqueUsername(), "secret123");
+        String refreshToken = registered.get("refreshToken").asText();
+
+        mockMvc.perform(post("/api/v1/auth/logout")
+                        .header("Authorization", "Bearer " + registered.get("token").asText())
+                        .cookie(new Cookie("refreshToken", refreshToken)))
+                .andExpect(status().isOk());
+        assertEquals(401, refresh(refreshToken).getResponse().getStatus());
+
+        long before = refreshTokenRepository.count();
+        assertTrue(refreshTokenService.purgeExpired(Instant.now().plus(Duration.ofSeconds(1))) >= 1);
+        assertTrue(refreshTokenRepository.count() < before);
+    }
+
+    @Test
+    void jwksPublishesTheSigningKeyWithCachingHeaders() throws Exception {
+        String token = register(uniqueUsername(), "secret123");
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))),
+                StandardCharsets.UTF_8);
+        String kid = objectMapper.readTree(header).get("kid").asText();
+
+        MvcResult result = mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.keys[?(@.kid == '" + kid + "')].kty").value("EC"))
+                .andReturn();
+        String eTag = result.getResponse().getHeader("ETag");
+        assertTrue(result.getResponse().getHeader("Cache-Control").contains("max-age=300"));
+
+        mockMvc.perform(get("/.well-known/jwks.json").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+    }
+}
@@ -0,0 +1,103 @@
+package com.bucott.taskmanager.controller;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.bucott.taskmanager.ApiFixtures;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.Cookie;
+
+@SpringBootTest(properties = "rate-limit.enabled=false")
+@AutoConfigureMockMvc
+class EventControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ApiFixtures fixtures;
+
+    @BeforeEach
+    void setUpFixtures() {
+        fixtures = new ApiFixtures(mockMvc, objectMapper);
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            String content = response.getContentAsString();
+            if (content.contains(expected)) {
+                return content;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Stream never contained " + expected + ": " + response.getContentAsString());
+    }
+
+    @Test
+    void taskChangesArePushedAndReplayedFromLastEventId() throws Exception {
+        String auth = fixtures.registerUser();
+        MockHttpServletResponse live = mockMvc.perform(get("/api/v1/events").header("Authorization", auth))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        fixtures.createTask(auth, "first");
+        String content = awaitContent(live, "\"title\":\"first\"");
+        Matcher id = Pattern.compile("id:(\\S+)\\nevent:task.created").matcher(content);
+        assertTrue(id.find());
+        String firstId = id.group(1);
+
+        fixtures.createTask(auth, "second");
+        awaitContent(live, "\"title\":\"second\"");
+
+        // a browser EventSource reconnects with the auth cookie and the last id it saw
+        MockHttpServletResponse resumed = mockMvc.perform(get("/api/v1/events")
+                        .cookie(new Cookie("authToken", ApiFixtures.token(auth)))
+                        .header("Last-Event-ID", firstId))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        String replayed = awaitContent(resumed, "\"title\":\"second\"");
+        assertFalse(replayed.contains("\"title\":\"first\""));
+    }
+
+    @Test
+    void unknownLastEventIdAsksTheClientToResync() throws Exception {
+        String auth = fixtures.registerUser();
+        MockHttpServletResponse response = mockMvc.perform(get("/api/v1/events")
+                        .header("Authorization", auth)
+                        .header("Last-Event-ID", "previous-boot-42"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        awaitContent(response, "event:reset");
+    }
+
+    @Test
+    void cookieAuthenticationIsNotAcceptedForWrites() throws Exception {
+        String auth = fixtures.registerUser();
+        mockMvc.perform(post("/api/v1/tasks")
+                        .cookie(new Cookie("authToken", ApiFixtures.token(auth)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"forged\"}"))
+                .andExpect(status().isForbidden());
+    }
+}
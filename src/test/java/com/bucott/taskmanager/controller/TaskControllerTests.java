@@ -0,0 +1,529 @@
+package com.bucott.taskmanager.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.bucott.taskmanager.ApiFixtures;
+import com.bucott.taskmanager.service.LoggingReminderNotifier;
+import com.bucott.taskmanager.service.Reminder;
+import com.bucott.taskmanager.service.TaskCounterService;
+import com.bucott.taskmanager.util.JwtUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest(properties = {"rate-limit.enabled=false", "task-import.batch-size=2", "reminders.tick=50ms",
+        "task-batch.chunk-size=2"})
+@AutoConfigureMockMvc
+class TaskControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Autowired
+    private LoggingReminderNotifier reminderNotifier;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private ApiFixtures fixtures;
+
+    @BeforeEach
+    void setUpFixtures() {
+        fixtures = new ApiFixtures(mockMvc, objectMapper);
+    }
+
+    private List<String> listAllTitles(String auth, int pageSize) throws Exception {
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/api/v1/tasks").header("Authorization", auth).param("limit", String.valueOf(pageSize));
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("items").forEach(item -> titles.add(item.get("title").asText()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            assertTrue(titles.size() <= 1000, "pagination does not advance");
+        } while (cursor != null);
+        return titles;
+    }
+
+    @Test
+    void keysetPagesFollowDueDateThenIdWithUndatedLast() throws Exception {
+        String auth = fixtures.registerUser();
+        Instant base = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        fixtures.createTask(auth, "undated-1", null);
+        fixtures.createTask(auth, "day-3", base.plus(3, ChronoUnit.DAYS));
+        fixtures.createTask(auth, "day-1a", base.plus(1, ChronoUnit.DAYS));
+        fixtures.createTask(auth, "day-1b", base.plus(1, ChronoUnit.DAYS));
+        fixtures.createTask(auth, "undated-2", null);
+        fixtures.createTask(auth, "day-2", base.plus(2, ChronoUnit.DAYS));
+
+        List<String> expected = List.of("day-1a", "day-1b", "day-2", "day-3", "undated-1", "undated-2");
+        assertEquals(expected, listAllTitles(auth, 2));
+        assertEquals(expected, listAllTitles(auth, 4));
+        assertEquals(expected, listAllTitles(auth, 50));
+    }
+
+    @Test
+    void cursorsKeepSubMillisecondDueDates() throws Exception {
+        String auth = fixtures.registerUser();
+        Instant base = Instant.parse("2031-01-01T00:00:00.000500Z");
+        Map<String, Instant> dueDates = new LinkedHashMap<>();
+        dueDates.put("first", base);
+        dueDates.put("second", base.plusNanos(1000));
+        dueDates.put("third", base.plusMillis(1));
+        for (Map.Entry<String, Instant> entry : dueDates.entrySet()) {
+            Map<String, Object> task = new HashMap<>();
+            task.put("title", entry.getKey());
+            task.put("dueDate", entry.getValue());
+            task.put("labels", List.of("precise"));
+            mockMvc.perform(post("/api/v1/tasks")
+                            .header("Authorization", auth)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(task)))
+                    .andExpect(status().isCreated());
+        }
+
+        List<String> expected = List.of("first", "second", "third");
+        assertEquals(expected, listAllTitles(auth, 1));
+        assertEquals(expected, listTitlesByLabels(auth, "precise", 1));
+    }
+
+    @Test
+    void tasksAreScopedToTheirOwner() throws Exception {
+        String alice = fixtures.registerUser();
+        String bob = fixtures.registerUser();
+        long taskId = fixtures.createTask(alice, "private", null);
+
+        mockMvc.perform(get("/api/v1/tasks/" + taskId).header("Authorization", bob))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/v1/tasks/" + taskId).header("Authorization", bob))
+                .andExpect(status().isNotFound());
+        assertEquals(List.of(), listAllTitles(bob, 10));
+
+        mockMvc.perform(delete("/api/v1/tasks/" + taskId).header("Authorization", alice))
+                .andExpect(status().isNoContent());
+        assertEquals(List.of(), listAllTitles(alice, 10));
+    }
+
+    @Test
+    void importStreamsBatchesAndReportsBadRows() throws Exception {
+        String auth = fixtures.registerUser();
+        String body = String.join("\n",
+                "{\"title\":\"imported-1\",\"dueDate\":\"2030-01-01T00:00:00Z\"}",
+                "{\"title\":\"imported-2\"}",
+                "{not json",
+                "",
+                "{\"title\":\"   \"}",
+                "{\"title\":\"imported-3\",\"status\":\"DONE\"}") + "\n";
+
+        String response = mockMvc.perform(post("/api/v1/tasks/import")
+                        .header("Authorization", auth)
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<JsonNode> events = new ArrayList<>();
+        for (String line : response.split("\n")) {
+            events.add(objectMapper.readTree(line));
+        }
+        List<Long> errorLines = events.stream()
+                .filter(event -> event.get("type").asText().equals("error"))
+                .map(event -> event.get("line").asLong())
+                .toList();
+        assertEquals(List.of(3L, 5L), errorLines);
+        assertEquals(2, events.stream().filter(event -> event.get("type").asText().equals("batch")).count());
+
+        JsonNode summary = events.get(events.size() - 1);
+        assertEquals("summary", summary.get("type").asText());
+        assertEquals(3, summary.get("imported").asLong());
+        assertEquals(2, summary.get("failed").asLong());
+        assertEquals(List.of("imported-1", "imported-2", "imported-3"), listAllTitles(auth, 10));
+    }
+
+    private List<String> searchTitles(String auth, String query) throws Exception {
+        JsonNode page = objectMapper.readTree(mockMvc.perform(get("/api/v1/tasks/search")
+                        .header("Authorization", auth)
+                        .param("q", query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        List<String> titles = new ArrayList<>();
+        page.get("items").forEach(item -> titles.add(item.get("title").asText()));
+        return titles;
+    }
+
+    @Test
+    void searchIsRankedAndFollowsWrites() throws Exception {
+        String auth = fixtures.registerUser();
+        String other = fixtures.registerUser();
+        long report = fixtures.createTask(auth, "Quarterly report", null);
+        fixtures.createTask(auth, "Groceries", null);
+        fixtures.createTask(auth, "Call accountant", null);
+        fixtures.createTask(other, "Quarterly report for someone else", null);
+
+        Map<String, Object> described = new HashMap<>();
+        described.put("title", "Review budget");
+        described.put("description", "numbers for the quarterly report");
+        mockMvc.perform(post("/api/v1/tasks")
+                        .header("Authorization", auth)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(described)))
+                .andExpect(status().isCreated());
+
+        // title matches outrank description matches, and other owners' tasks never appear
+        assertEquals(List.of("Quarterly report", "Review budget"), searchTitles(auth, "quarterly report"));
+        assertEquals(List.of("Call accountant"), searchTitles(auth, "acc*"));
+        assertEquals(List.of(), searchTitles(auth, "acc"));
+
+        mockMvc.perform(put("/api/v1/tasks/" + report)
+                        .header("Authorization", auth)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Annual summary\"}"))
+                .andExpect(status().isOk());
+        assertEquals(List.of("Review budget"), searchTitles(auth, "quarterly"));
+        assertEquals(List.of("Annual summary"), searchTitles(auth, "annual"));
+
+        mockMvc.perform(delete("/api/v1/tasks/" + report).header("Authorization", auth))
+                .andExpect(status().isNoContent());
+        assertEquals(List.of(), searchTitles(auth, "annual"));
+
+        mockMvc.perform(get("/api/v1/tasks/search").header("Authorization", auth).param("q", " * "))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode stats(String auth) throws Exception {
+        String response = mockMvc.perform(get("/api/v1/tasks/stats").header("Authorization", auth))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    @Test
+    void statsFollowWritesAndOverdueRollsWithTime() throws Exception {
+        String auth = fixtures.registerUser();
+        assertEquals(0, stats(auth).get("total").asLong());
+
+        long late = fixtures.createTask(auth, "late", Instant.parse("2020-01-01T00:00:00Z"));
+        long soon = fixtures.createTask(auth, "soon", Instant.now().plus(2, ChronoUnit.DAYS));
+        fixtures.createTask(auth, "someday", null);
+        JsonNode stats = stats(auth);
+        assertEquals(3, stats.get("open").asLong());
+        assertEquals(1, stats.get("overdue").asLong());
+
+        taskCounterService.rollOverdue(Instant.now().plus(3, ChronoUnit.DAYS));
+        assertEquals(2, stats(auth).get("overdue").asLong());
+
+        mockMvc.perform(put("/api/v1/tasks/" + late)
+                        .header("Authorization", auth)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"late\",\"dueDate\":\"2020-01-01T00:00:00Z\",\"status\":\"DONE\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/v1/tasks/" + soon).header("Authorization", auth))
+                .andExpect(status().isNoContent());
+        stats = stats(auth);
+        assertEquals(1, stats.get("open").asLong());
+        assertEquals(0, stats.get("inProgress").asLong());
+        assertEquals(1, stats.get("done").asLong());
+        assertEquals(0, stats.get("overdue").asLong());
+        assertEquals(2, stats.get("total").asLong());
+    }
+
+    private boolean reminded(long taskId) {
+        return reminderNotifier.recent().stream().map(Reminder::taskId).anyMatch(id -> id == taskId);
+    }
+
+    @Test
+    void remindersFireAtTheDueDateUnlessTheTaskIsDone() throws Exception {
+        String auth = fixtures.registerUser();
+        Instant due = Instant.now().plusMillis(1500);
+        long reminded = fixtures.createTask(auth, "reminded", due);
+        long finished = fixtures.createTask(auth, "finished", due);
+        long rescheduled = fixtures.createTask(auth, "rescheduled", due);
+        mockMvc.perform(put("/api/v1/tasks/" + finished)
+                        .header("Authorization", auth)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"finished\",\"status\":\"DONE\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/v1/tasks/" + rescheduled)
+                        .header("Authorization", auth)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"rescheduled\",\"dueDate\":\"2099-01-01T00:00:00Z\"}"))
+                .andExpect(status().isOk());
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!reminded(reminded) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(reminded(reminded));
+        assertTrue(Instant.now().isAfter(due));
+        assertTrue(!reminded(finished) && !reminded(rescheduled));
+    }
+
+    private JsonNode patchBatch(String auth, Object request) throws Exception {
+        String response = mockMvc.perform(patch("/api/v1/tasks/batch")
+                        .header("Authorization", auth)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    @Test
+    void batchUpdateChangesOnlyTheCallersTasks() throws Exception {
+        String auth = fixtures.registerUser();
+        String other = fixtures.registerUser();
+        long assignee = jwtUtil.verify(other.substring("Bearer ".length())).userId();
+        long first = fixtures.createTask(auth, "first", null);
+        long second = fixtures.createTask(auth, "second", null);
+        long third = fixtures.createTask(auth, "third", null);
+        long foreign = fixtures.createTask(other, "foreign", null);
+
+        JsonNode result = patchBatch(auth, Map.of(
+                "ids", List.of(first, second, third, foreign, 999_999L),
+                "changes", Map.of("status", "IN_PROGRESS", "dueDate", "2030-01-01T00:00:00Z", "assigneeId", assignee)));
+        assertEquals(5, result.get("matched").asLong());
+        assertEquals(3, result.get("updated").asLong());
+        assertEquals(List.of(String.valueOf(foreign), "999999"), result.get("failures").findValuesAsText("id"));
+
+        JsonNode task = objectMapper.readTree(mockMvc.perform(get("/api/v1/tasks/" + second).header("Authorization", auth))
+                .andReturn().getResponse().getContentAsString());
+        assertEquals("IN_PROGRESS", task.get("status").asText());
+        assertEquals("2030-01-01T00:00:00Z", task.get("dueDate").asText());
+        assertEquals(assignee, task.get("assigneeId").asLong());
+        assertEquals(3, stats(auth).get("inProgress").asLong());
+        assertEquals(1, stats(other).get("open").asLong());
+
+        result = patchBatch(auth, Map.of(
+                "filter", Map.of("status", "IN_PROGRESS"),
+                "changes", Map.of("status", "DONE", "clearDueDate", true, "clearAssignee", true)));
+        assertEquals(3, result.get("updated").asLong());
+        assertEquals(0, result.get("failures").size());
+        assertEquals(3, stats(auth).get("done").asLong());
+
+        mockMvc.perform(patch("/api/v1/tasks/batch")
+                        .header("Authorization", auth)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + first + "],\"filter\":{},\"changes\":{\"status\":\"OPEN\"}}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void mergePatchIsConditionalOnTheETag() throws Exception {
+        String auth = fixtures.registerUser();
+        Map<String, Object> task = new HashMap<>();
+        task.put("title", "draft");
+        task.put("description", "first version");
+        task.put("dueDate", "2030-01-01T00:00:00Z");
+        task.put("labels", List.of("work"));
+        MvcResult created = mockMvc.perform(post("/api/v1/tasks")
+                        .header("Authorization", auth)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(task)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andReturn();
+        long id = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+
+        String patched = mockMvc.perform(patch("/api/v1/tasks/" + id)
+                        .header("Authorization", auth)
+                        .header("If-Match", "\"0\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"description\":\"second version\",\"dueDate\":null}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode body = objectMapper.readTree(patched);
+        assertEquals("draft", body.get("title").asText());
+        assertEquals("second version", body.get("description").asText());
+        assertTrue(body.get("dueDate").isNull());
+        assertEquals("work", body.get("labels").get(0).asText());
+
+        // a second tab still holding version 0 gets the current task back instead of overwriting it
+        String conflict = mockMvc.perform(patch("/api/v1/tasks/" + id)
+                        .header("Authorization", auth)
+                        .header("If-Match", "\"0\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"title\":\"stale\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("second version", objectMapper.readTree(conflict).get("description").asText());
+
+        mockMvc.perform(put("/api/v1/tasks/" + id)
+                        .header("Authorization", auth)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"stale\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(patch("/api/v1/tasks/" + id)
+                        .header("Authorization", auth)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"title\":\"unconditional\"}"))
+                .andExpect(status().is(428));
+        mockMvc.perform(patch("/api/v1/tasks/" + id)
+                        .header("Authorization", auth)
+                        .header("If-Match", "\"1\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"version\":7}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/api/v1/tasks/" + id)
+                        .header("Authorization", auth)
+                        .header("If-Match", "\"1\""))
+                .andExpect(status().isNoContent());
+    }
+
+    private long createLabelledTask(String auth, String title, List<String> labels) throws Exception {
+        Map<String, Object> task = new HashMap<>();
+        task.put("title", title);
+        task.put("labels", labels);
+        String response = mockMvc.perform(post("/api/v1/tasks")
+                        .header("Authorization", auth)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(task)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+
+    private List<String> listTitlesByLabels(String auth, String labels, int pageSize) throws Exception {
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/api/v1/tasks").header("Authorization", auth)
+                    .param("labels", labels)
+                    .param("limit", String.valueOf(pageSize));
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("items").forEach(item -> titles.add(item.get("title").asText()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            assertTrue(titles.size() <= 1000, "pagination does not advance");
+        } while (cursor != null);
+        return titles;
+    }
+
+    @Test
+    void labelExpressionsFilterTheListing() throws Exception {
+        String auth = fixtures.registerUser();
+        createLabelledTask(auth, "a", List.of("bug", "urgent"));
+        long blocked = createLabelledTask(auth, "b", List.of("Bug", "urgent", "blocked"));
+        createLabelledTask(auth, "c", List.of("bug"));
+        createLabelledTask(auth, "d", List.of("incident", "urgent"));
+        createLabelledTask(auth, "e", List.of());
+
+        assertEquals(List.of("a"), listTitlesByLabels(auth, "bug AND urgent AND NOT blocked", 1));
+        assertEquals(List.of("a", "b", "d"), listTitlesByLabels(auth, "(bug OR incident) and urgent", 2));
+        assertEquals(List.of("c", "e"), listTitlesByLabels(auth, "NOT urgent", 1));
+
+        JsonNode task = objectMapper.readTree(mockMvc.perform(get("/api/v1/tasks/" + blocked)
+                        .header("Authorization", auth))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals("[\"blocked\",\"bug\",\"urgent\"]", task.get("labels").toString());
+
+        // writes after the owner's bitmaps were loaded are applied incrementally
+        mockMvc.perform(put("/api/v1/tasks/" + blocked)
+                        .header("Authorization", auth)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"b\",\"labels\":[\"bug\",\"urgent\"]}"))
+                .andExpect(status().isOk());
+        assertEquals(List.of("a", "b"), listTitlesByLabels(auth, "bug AND urgent AND NOT blocked", 10));
+        mockMvc.perform(delete("/api/v1/tasks/" + blocked).header("Authorization", auth))
+                .andExpect(status().isNoContent());
+        assertEquals(List.of("a"), listTitlesByLabels(auth, "bug AND urgent", 10));
+
+        mockMvc.perform(get("/api/v1/tasks").header("Authorization", auth).param("labels", "bug AND (urgent"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportStreamsNdjsonAndGzippedCsv() throws Exception {
+        String auth = fixtures.registerUser();
+        Instant due = Instant.parse("2031-06-01T12:00:00Z");
+        fixtures.createTask(auth, "plain", due);
+        fixtures.createTask(auth, "needs, \"quoting\"", null);
+
+        MvcResult ndjson = mockMvc.perform(get("/api/v1/tasks/export").header("Authorization", auth))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String[] lines = mockMvc.perform(asyncDispatch(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString().split("\n");
+        List<String> titles = new ArrayList<>();
+        for (String line : lines) {
+            titles.add(objectMapper.readTree(line).get("title").asText());
+        }
+        // listing order: dated tasks first, undated ones after them
+        assertEquals(List.of("plain", "needs, \"quoting\""), titles);
+
+        MvcResult csv = mockMvc.perform(get("/api/v1/tasks/export")
+                        .header("Authorization", auth)
+                        .header("Accept-Encoding", "gzip, deflate")
+                        .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] compressed = mockMvc.perform(asyncDispatch(csv))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        String[] rows;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            rows = new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\r\n");
+        }
+        assertEquals(3, rows.length);
+        assertEquals("id,title,description,status,dueDate,assigneeId,createdAt,updatedAt,labels", rows[0]);
+        String body = String.join("\n", rows);
+        assertTrue(body.contains(",plain,,OPEN,2031-06-01T12:00:00Z,"));
+        assertTrue(body.contains(",\"needs, \"\"quoting\"\"\",,OPEN,,"));
+    }
+
+    @Test
+    void unauthenticatedRequestsAreRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks"))
+                .andExpect(status().isForbidden());
+    }
+}
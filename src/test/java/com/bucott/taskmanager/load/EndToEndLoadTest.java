@@ -0,0 +1,293 @@
+package com.bucott.taskmanager.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.bucott.taskmanager.TaskManagerApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+// Open-model load test of the auth endpoints against the whole application on a random port with in-memory H2.
+// Every endpoint receives requests at a fixed arrival rate however slowly earlier ones complete, and latency is
+// measured from when a request was due to be sent, not when it was, so a stalled server shows up as latency
+// instead of quietly lowering the offered load (coordinated omission). Fails when an endpoint misses its p99,
+// throughput or error-rate limit; text and JSON percentile reports are written next to each other.
+// Excluded from the default build; run with: mvn test -Pload-test -Dtest=EndToEndLoadTest
+@Tag("load")
+class EndToEndLoadTest {
+    private static final int USERS = Integer.getInteger("load.users", 50);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmupSeconds", 3));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.durationSeconds", 10));
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(Long.getLong("load.requestTimeoutSeconds", 10));
+    private static final double MIN_THROUGHPUT_RATIO = Double.parseDouble(System.getProperty("load.minThroughputRatio", "0.9"));
+    private static final double MAX_ERROR_RATIO = Double.parseDouble(System.getProperty("load.maxErrorRatio", "0.01"));
+    private static final String REPORT = System.getProperty("load.report", "target/load-report");
+    private static final String PASSWORD = "secret123";
+    // latencies above this are clamped; HdrHistogram keeps 3 significant digits below it
+    private static final long MAX_LATENCY_MICROS = Duration.ofMinutes(1).toNanos() / 1000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong registrations = new AtomicLong();
+    private final List<String> usernames = new ArrayList<>();
+    private final List<String> tokens = new ArrayList<>();
+    private HttpClient client;
+    private String baseUrl;
+
+    @TempDir
+    Path keys;
+
+    // requests per second offered to one endpoint, and the p99 it must stay under. /me and /verify answer
+    // 200 with authenticated:false for a bad, expired or revoked token, so for them that body is a failure.
+    private record Endpoint(String name, double rate, Duration p99Limit, Supplier<HttpRequest> request,
+            boolean mustAuthenticate) {
+    }
+
+    private static final class Stats {
+        final Histogram latencyMicros = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        final LongAdder succeeded = new LongAdder();
+        final LongAdder failed = new LongAdder();
+    }
+
+    @Test
+    void authEndpointsMeetLatencyAndThroughputLimits() throws Exception {
+        ConfigurableApplicationContext context = new SpringApplication(TaskManagerApplication.class).run(
+                "--server.port=0",
+                "--rate-limit.enabled=false",
+                "--spring.datasource.url=jdbc:h2:mem:e2e-load",
+                "--token-revocation.file=",
+                "--jwt.signing.key-directory=" + keys,
+                "--logging.level.root=WARN");
+        try {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            baseUrl = "http://localhost:" + port + "/api/v1/auth";
+            client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            for (int i = 0; i < USERS; i++) {
+                seedUser("seed" + i);
+            }
+
+            List<Endpoint> endpoints = List.of(
+                    endpoint("login", 2, Duration.ofMillis(1000), this::login, false),
+                    endpoint("register", 1, Duration.ofMillis(1000), this::register, false),
+                    endpoint("me", 100, Duration.ofMillis(100), () -> withToken("/me"), true),
+                    endpoint("verify", 100, Duration.ofMillis(100), () -> withToken("/verify"), true));
+            Map<String, Stats> results = drive(endpoints);
+
+            List<String> violations = report(endpoints, results);
+            assertTrue(violations.isEmpty(), String.join("\n", violations));
+        } finally {
+            context.close();
+        }
+    }
+
+    // rate and p99 limit can be overridden per endpoint: -Dload.rate.me=500 -Dload.p99Millis.me=50
+    private static Endpoint endpoint(String name, double rate, Duration p99Limit, Supplier<HttpRequest> request,
+            boolean mustAuthenticate) {
+        return new Endpoint(name,
+                Double.parseDouble(System.getProperty("load.rate." + name, String.valueOf(rate))),
+                Duration.ofMillis(Long.getLong("load.p99Millis." + name, p99Limit.toMillis())),
+                request, mustAuthenticate);
+    }
+
+    private void seedUser(String username) throws Exception {
+        HttpResponse<String> response = client.send(registration(username), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        usernames.add(username);
+        tokens.add(objectMapper.readTree(response.body()).get("token").asText());
+    }
+
+    private HttpRequest login() {
+        String username = usernames.get(ThreadLocalRandom.current().nextInt(usernames.size()));
+        return json("/login", Map.of("usernameOrEmail", username, "password", PASSWORD));
+    }
+
+    private HttpRequest register() {
+        return registration("load" + registrations.incrementAndGet());
+    }
+
+    private HttpRequest registration(String username) {
+        return json("/register", Map.of(
+                "username", username,
+                "email", username + "@example.com",
+                "password", PASSWORD,
+                "confirmPassword", PASSWORD));
+    }
+
+    private HttpRequest withToken(String path) {
+        String token = tokens.get(ThreadLocalRandom.current().nextInt(tokens.size()));
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Cookie", "authToken=" + token)
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest json(String path, Map<String, String> body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .timeout(REQUEST_TIMEOUT)
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // One dispatcher thread per endpoint releases requests on schedule; each runs on its own virtual thread
+    private Map<String, Stats> drive(List<Endpoint> endpoints) throws InterruptedException {
+        Map<String, Stats> results = new LinkedHashMap<>();
+        long start = System.nanoTime();
+        long measureFrom = start + WARMUP.toNanos();
+        long end = measureFrom + DURATION.toNanos();
+        // closing the executor waits for requests still in flight, each bounded by REQUEST_TIMEOUT
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Thread> dispatchers = new ArrayList<>();
+            for (Endpoint endpoint : endpoints) {
+                Stats stats = new Stats();
+                results.put(endpoint.name(), stats);
+                dispatchers.add(Thread.ofPlatform().name("load-" + endpoint.name()).start(() ->
+                        dispatch(endpoint, stats, requests, start, measureFrom, end)));
+            }
+            for (Thread dispatcher : dispatchers) {
+                dispatcher.join();
+            }
+        }
+        return results;
+    }
+
+    private void dispatch(Endpoint endpoint, Stats stats, ExecutorService requests, long start, long measureFrom, long end) {
+        double intervalNanos = 1e9 / endpoint.rate();
+        for (long n = 0; ; n++) {
+            long due = start + (long) (n * intervalNanos);
+            if (due >= end) {
+                return;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            requests.execute(() -> send(endpoint, stats, due, due >= measureFrom));
+        }
+    }
+
+    private void send(Endpoint endpoint, Stats stats, long due, boolean record) {
+        boolean succeeded;
+        try {
+            HttpResponse<String> response = client.send(endpoint.request().get(), HttpResponse.BodyHandlers.ofString());
+            succeeded = response.statusCode() == 200
+                    && (!endpoint.mustAuthenticate() || objectMapper.readTree(response.body()).path("authenticated").asBoolean());
+        } catch (IOException e) {
+            succeeded = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (!record) {
+            return;
+        }
+        stats.latencyMicros.recordValue(Math.min(MAX_LATENCY_MICROS, (System.nanoTime() - due) / 1000));
+        (succeeded ? stats.succeeded : stats.failed).increment();
+    }
+
+    // Prints and writes the per-endpoint report; returns every limit that was missed
+    private List<String> report(List<Endpoint> endpoints, Map<String, Stats> results) throws IOException {
+        List<String> violations = new ArrayList<>();
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("warmupSeconds", WARMUP.toSeconds());
+        json.put("durationSeconds", DURATION.toSeconds());
+        json.put("users", USERS);
+        Map<String, Object> perEndpoint = new LinkedHashMap<>();
+        json.put("endpoints", perEndpoint);
+
+        StringBuilder text = new StringBuilder(String.format("%-10s %9s %9s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "target/s", "actual/s", "requests", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms",
+                "max ms", "p99 limit"));
+        for (Endpoint endpoint : endpoints) {
+            Stats stats = results.get(endpoint.name());
+            Histogram histogram = stats.latencyMicros;
+            long requests = stats.succeeded.sum() + stats.failed.sum();
+            double throughput = stats.succeeded.sum() / (double) DURATION.toSeconds();
+            double p99 = millis(histogram.getValueAtPercentile(99));
+            text.append(String.format("%-10s %9.1f %9.1f %9d %7d %9.2f %9.2f %9.2f %9.2f %9.2f %9d%n",
+                    endpoint.name(), endpoint.rate(), throughput, requests, stats.failed.sum(),
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)), p99,
+                    millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()),
+                    endpoint.p99Limit().toMillis()));
+
+            Map<String, Object> latency = new LinkedHashMap<>();
+            latency.put("p50", millis(histogram.getValueAtPercentile(50)));
+            latency.put("p90", millis(histogram.getValueAtPercentile(90)));
+            latency.put("p99", p99);
+            latency.put("p99.9", millis(histogram.getValueAtPercentile(99.9)));
+            latency.put("max", millis(histogram.getMaxValue()));
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("targetRate", endpoint.rate());
+            entry.put("throughput", throughput);
+            entry.put("requests", requests);
+            entry.put("errors", stats.failed.sum());
+            entry.put("latencyMillis", latency);
+            entry.put("p99LimitMillis", endpoint.p99Limit().toMillis());
+            perEndpoint.put(endpoint.name(), entry);
+
+            if (requests == 0) {
+                violations.add(endpoint.name() + ": no requests completed");
+                continue;
+            }
+            if (p99 > endpoint.p99Limit().toMillis()) {
+                violations.add(String.format("%s: p99 %.2f ms exceeds %d ms", endpoint.name(), p99, endpoint.p99Limit().toMillis()));
+            }
+            if (throughput < endpoint.rate() * MIN_THROUGHPUT_RATIO) {
+                violations.add(String.format("%s: throughput %.1f/s is below %.0f%% of the offered %.1f/s",
+                        endpoint.name(), throughput, MIN_THROUGHPUT_RATIO * 100, endpoint.rate()));
+            }
+            if (stats.failed.sum() > requests * MAX_ERROR_RATIO) {
+                violations.add(String.format("%s: %d of %d requests failed", endpoint.name(), stats.failed.sum(), requests));
+            }
+        }
+        json.put("violations", violations);
+
+        System.out.printf("%n%s", text);
+        Path textReport = Path.of(REPORT + ".txt");
+        if (textReport.getParent() != null) {
+            Files.createDirectories(textReport.getParent());
+        }
+        Files.writeString(textReport, text);
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(Path.of(REPORT + ".json").toFile(), json);
+        return violations;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
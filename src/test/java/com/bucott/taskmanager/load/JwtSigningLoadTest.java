@@ -0,0 +1,75 @@
+package com.bucott.taskmanager.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.bucott.taskmanager.util.JwtKeyRing;
+import com.bucott.taskmanager.util.JwtUtil;
+import com.bucott.taskmanager.util.VerifiedTokenCache;
+
+// Compares signing and verification cost of HS256 and ES256 access tokens, with the verification cache off.
+// Excluded from the default build; run with: mvn test -Pload-test -Dtest=JwtSigningLoadTest
+@Tag("load")
+class JwtSigningLoadTest {
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmupSeconds", 3));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.durationSeconds", 5));
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hs256";
+
+    @TempDir
+    Path keys;
+
+    @Test
+    void compareSignatureAlgorithms() {
+        Map<String, JwtUtil> algorithms = new LinkedHashMap<>();
+        algorithms.put("HS256", new JwtUtil(JwtKeyRing.hmac(SECRET), new VerifiedTokenCache(false, 0), Duration.ofMinutes(15)));
+        algorithms.put("ES256", new JwtUtil(JwtKeyRing.ecDirectory(keys, Duration.ZERO), new VerifiedTokenCache(false, 0),
+                Duration.ofMinutes(15)));
+
+        System.out.printf("%n%-8s %-8s %12s %12s%n", "alg", "op", "ns/op", "ops/s");
+        algorithms.forEach((name, jwtUtil) -> {
+            String token = sign(jwtUtil);
+            assertEquals("alice", jwtUtil.verify(token).subject());
+            report(name, "sign", measure(() -> sign(jwtUtil)));
+            report(name, "verify", measure(() -> jwtUtil.verify(token)));
+        });
+    }
+
+    private static String sign(JwtUtil jwtUtil) {
+        return jwtUtil.generateToken(7L, "alice", "alice@example.com", List.of("ROLE_USER"), 0);
+    }
+
+    // mean nanoseconds per call over DURATION, after WARMUP
+    private static double measure(Supplier<?> operation) {
+        Object sink = null;
+        long warmupEnd = System.nanoTime() + WARMUP.toNanos();
+        while (System.nanoTime() < warmupEnd) {
+            sink = operation.get();
+        }
+        long calls = 0;
+        long start = System.nanoTime();
+        long end = start + DURATION.toNanos();
+        long now;
+        do {
+            sink = operation.get();
+            calls++;
+        } while ((now = System.nanoTime()) < end);
+        if (sink == null) {
+            throw new IllegalStateException("operation returned nothing");
+        }
+        return (double) (now - start) / calls;
+    }
+
+    private static void report(String algorithm, String operation, double nanosPerOp) {
+        System.out.printf("%-8s %-8s %12.0f %12.0f%n", algorithm, operation, nanosPerOp, 1e9 / nanosPerOp);
+    }
+}
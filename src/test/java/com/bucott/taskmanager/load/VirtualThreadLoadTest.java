@@ -0,0 +1,118 @@
+package com.bucott.taskmanager.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.bucott.taskmanager.TaskManagerApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Compares /me and /verify throughput with platform and virtual request threads.
+// Excluded from the default build; run with: mvn test -Pload-test
+@Tag("load")
+class VirtualThreadLoadTest {
+    private static final int CONNECTIONS = Integer.getInteger("load.connections", 1000);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmupSeconds", 3));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.durationSeconds", 10));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void compareRequestThreadModes() throws Exception {
+        Map<String, Map<String, Double>> results = new LinkedHashMap<>();
+        for (boolean virtual : new boolean[] { false, true }) {
+            results.put(virtual ? "virtual" : "platform", run(virtual));
+        }
+
+        System.out.printf("%n%-10s %-22s %12s%n", "mode", "endpoint", "req/s");
+        results.forEach((mode, endpoints) -> endpoints.forEach((endpoint, throughput) ->
+                System.out.printf("%-10s %-22s %12.0f%n", mode, endpoint, throughput)));
+    }
+
+    private Map<String, Double> run(boolean virtualThreads) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplication(TaskManagerApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--rate-limit.enabled=false",
+                "--spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads,
+                "--logging.level.root=WARN");
+        try {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port + "/api/v1/auth";
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            String token = registerUser(client, baseUrl);
+
+            Map<String, Double> throughput = new LinkedHashMap<>();
+            for (String endpoint : new String[] { "/me", "/verify" }) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + endpoint))
+                        .header("Cookie", "authToken=" + token)
+                        .GET()
+                        .build();
+                drive(client, request, WARMUP);
+                throughput.put(endpoint, drive(client, request, DURATION));
+            }
+            return throughput;
+        } finally {
+            context.close();
+        }
+    }
+
+    private String registerUser(HttpClient client, String baseUrl) throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of(
+                "username", "loaduser",
+                "email", "loaduser@example.com",
+                "password", "secret123",
+                "confirmPassword", "secret123"));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    // Closed loop with CONNECTIONS concurrent clients; returns completed requests per second
+    private double drive(HttpClient client, HttpRequest request, Duration duration) throws InterruptedException {
+        LongAdder completed = new LongAdder();
+        LongAdder failed = new LongAdder();
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONNECTIONS; i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 200) {
+                                completed.increment();
+                            } else {
+                                failed.increment();
+                            }
+                        } catch (Exception e) {
+                            failed.increment();
+                        }
+                    }
+                });
+            }
+        }
+        assertTrue(completed.sum() > 0, "no successful requests");
+        return completed.sum() / (double) duration.toSeconds();
+    }
+}
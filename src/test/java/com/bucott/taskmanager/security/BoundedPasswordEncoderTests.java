@@ -0,0 +1,86 @@
+package com.bucott.taskmanager.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.bucott.taskmanager.exception.TooManyRequestsException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedPasswordEncoderTests {
+
+    @Test
+    void delegatesToWrappedEncoder() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new ReversingEncoder(null), 1, 1,
+                Duration.ofSeconds(1), registry);
+
+        assertEquals("cba", encoder.encode("abc"));
+        assertTrue(encoder.matches("abc", "cba"));
+        assertEquals(2, registry.get("password.hashing.duration").timer().count());
+        encoder.destroy();
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new ReversingEncoder(release), 1, 1,
+                Duration.ofSeconds(3), registry);
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        Future<String> running = callers.submit(() -> encoder.encode("one"));
+        waitUntil(() -> registry.get("password.hashing.active").gauge().value() == 1);
+        Future<String> queued = callers.submit(() -> encoder.encode("two"));
+        waitUntil(() -> encoder.queueDepth() == 1);
+
+        TooManyRequestsException rejected = assertThrows(TooManyRequestsException.class, () -> encoder.encode("three"));
+        assertEquals(3, rejected.getRetryAfterSeconds());
+        assertEquals(1, registry.get("password.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("eno", running.get(5, TimeUnit.SECONDS));
+        assertEquals("owt", queued.get(5, TimeUnit.SECONDS));
+        callers.shutdown();
+        encoder.destroy();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private record ReversingEncoder(CountDownLatch gate) implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new StringBuilder(rawPassword).reverse().toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
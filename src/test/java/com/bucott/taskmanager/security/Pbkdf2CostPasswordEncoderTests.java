@@ -0,0 +1,36 @@
+package com.bucott.taskmanager.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+class Pbkdf2CostPasswordEncoderTests {
+
+    @Test
+    void hashesKeepMatchingAfterTheIterationCountChanges() {
+        String hash = new Pbkdf2CostPasswordEncoder(1000, 1000).encode("secret123");
+
+        Pbkdf2CostPasswordEncoder raised = new Pbkdf2CostPasswordEncoder(2000, 1000);
+        assertTrue(hash.startsWith("1000$"));
+        assertTrue(raised.matches("secret123", hash));
+        assertFalse(raised.matches("wrong", hash));
+        assertTrue(raised.upgradeEncoding(hash));
+
+        Pbkdf2CostPasswordEncoder lowered = new Pbkdf2CostPasswordEncoder(500, 1000);
+        assertTrue(lowered.matches("secret123", hash));
+        assertFalse(lowered.upgradeEncoding(hash));
+    }
+
+    @Test
+    void legacyHashesAreCheckedWithLegacyIterationsAndUpgraded() {
+        String legacy = new Pbkdf2PasswordEncoder("", 16, 1500,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256).encode("secret123");
+
+        Pbkdf2CostPasswordEncoder encoder = new Pbkdf2CostPasswordEncoder(2000, 1500);
+        assertTrue(encoder.matches("secret123", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+        assertFalse(encoder.matches("secret123", "abc$" + legacy));
+    }
+}
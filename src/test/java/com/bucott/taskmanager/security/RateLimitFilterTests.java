@@ -0,0 +1,136 @@
+package com.bucott.taskmanager.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.unit.DataSize;
+
+import com.bucott.taskmanager.config.RateLimitProperties;
+import com.bucott.taskmanager.config.RateLimitProperties.Endpoint;
+import com.bucott.taskmanager.config.RateLimitProperties.Limit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+
+class RateLimitFilterTests {
+
+    private RateLimitFilter filter(Limit perClient, Limit perAccount) {
+        RateLimitProperties properties = new RateLimitProperties(true, Duration.ofMinutes(10), 1000,
+                DataSize.ofKilobytes(16),
+                Map.of("login", new Endpoint("/api/v1/auth/login", perClient, perAccount, "usernameOrEmail")));
+        return new RateLimitFilter(new RateLimiter(properties), new ObjectMapper());
+    }
+
+    private MockHttpServletResponse login(RateLimitFilter filter, String remoteAddr, String account) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        request.setRemoteAddr(remoteAddr);
+        request.setContentType("application/json");
+        request.setContent(("{\"usernameOrEmail\":\"" + account + "\",\"password\":\"x\"}").getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        if (chain.getRequest() != null) {
+            // the downstream request must still see the whole body
+            String body = StreamUtils.copyToString(chain.getRequest().getInputStream(), StandardCharsets.UTF_8);
+            assertEquals("{\"usernameOrEmail\":\"" + account + "\",\"password\":\"x\"}", body);
+        }
+        return response;
+    }
+
+    @Test
+    void limitsPerClientAddress() throws Exception {
+        RateLimitFilter filter = filter(new Limit(2, Duration.ofMinutes(1)), null);
+
+        assertEquals(200, login(filter, "10.0.0.1", "alice").getStatus());
+        assertEquals(200, login(filter, "10.0.0.1", "bob").getStatus());
+        MockHttpServletResponse rejected = login(filter, "10.0.0.1", "carol");
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+
+        assertEquals(200, login(filter, "10.0.0.2", "alice").getStatus());
+    }
+
+    @Test
+    void limitsPerAccountAcrossAddresses() throws Exception {
+        RateLimitFilter filter = filter(new Limit(100, Duration.ofMinutes(1)), new Limit(2, Duration.ofMinutes(1)));
+
+        assertEquals(200, login(filter, "10.0.0.1", "alice").getStatus());
+        assertEquals(200, login(filter, "10.0.0.2", "Alice").getStatus());
+        assertEquals(429, login(filter, "10.0.0.3", "alice").getStatus());
+        assertEquals(200, login(filter, "10.0.0.3", "bob").getStatus());
+    }
+
+    @Test
+    void bufferedBodyIsReplayedToReadersAndReadListeners() throws Exception {
+        RateLimitFilter filter = filter(new Limit(100, Duration.ofMinutes(1)), new Limit(100, Duration.ofMinutes(1)));
+        String body = "{\"usernameOrEmail\":\"zoë\",\"password\":\"x\"}";
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        request.setContentType("application/json");
+        request.setCharacterEncoding("UTF-8");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertEquals(body, FileCopyUtils.copyToString(chain.getRequest().getReader()));
+
+        request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        ServletInputStream in = chain.getRequest().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                byte[] buffer = new byte[8];
+                while (in.isReady() && !in.isFinished()) {
+                    int n = in.read(buffer);
+                    if (n > 0) {
+                        read.write(buffer, 0, n);
+                    }
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allRead.set(true);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new AssertionError(t);
+            }
+        });
+        assertTrue(allRead.get());
+        assertEquals(body, read.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void otherPathsAreNotLimited() throws Exception {
+        RateLimitFilter filter = filter(new Limit(1, Duration.ofMinutes(1)), null);
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/auth/me");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.bucott.taskmanager.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.bucott.taskmanager.config.TokenRevocationProperties;
+import com.bucott.taskmanager.util.ParsedToken;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TokenRevocationStoreTests {
+
+    @TempDir
+    Path dir;
+
+    private TokenRevocationStore store(Path file) {
+        return new TokenRevocationStore(
+                new TokenRevocationProperties(file != null ? file.toString() : "", Duration.ofHours(1), 1024, Duration.ofMinutes(1)),
+                new SimpleMeterRegistry());
+    }
+
+    private static ParsedToken token(String id, Instant expiresAt) {
+        return new ParsedToken("alice", 1L, "alice@example.com", Instant.now(), expiresAt, List.of("ROLE_USER"), 0L, id);
+    }
+
+    @Test
+    void revokedTokenIsRejectedAndOthersAreNot() {
+        TokenRevocationStore store = store(null);
+        Instant expiresAt = Instant.now().plus(Duration.ofHours(2));
+
+        assertTrue(store.revoke(token("a", expiresAt)));
+
+        assertTrue(store.isRevoked(token("a", expiresAt)));
+        assertFalse(store.isRevoked(token("b", expiresAt)));
+        assertFalse(store.isRevoked(token(null, expiresAt)));
+        assertFalse(store.revoke(token("c", Instant.now().minusSeconds(1))));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void idsSharingAStringHashCodeGetDifferentProbes() {
+        TokenRevocationStore store = store(null);
+        Instant expiresAt = Instant.now().plus(Duration.ofHours(2));
+        // "Aa" and "BB" have the same hashCode, so every id spelt from them does too
+        int ids = 1 << 10;
+        for (int i = 0; i < ids; i += 2) {
+            store.revoke(collidingId(i, 10), expiresAt);
+        }
+
+        int falsePositives = 0;
+        for (int i = 1; i < ids; i += 2) {
+            assertEquals(collidingId(0, 10).hashCode(), collidingId(i, 10).hashCode());
+            if (store.mightBeRevoked(collidingId(i, 10), expiresAt)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < ids / 100, "false positives: " + falsePositives);
+    }
+
+    private static String collidingId(int bits, int length) {
+        StringBuilder id = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            id.append((bits >>> i & 1) == 0 ? "Aa" : "BB");
+        }
+        return id.toString();
+    }
+
+    @Test
+    void bloomFilterGrowsWithTheBucket() {
+        TokenRevocationStore store = store(null);
+        Instant expiresAt = Instant.now().plus(Duration.ofHours(2));
+        int revoked = 100_000;
+        for (int i = 0; i < revoked; i++) {
+            store.revoke("revoked-" + i, expiresAt);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < revoked; i++) {
+            if (store.mightBeRevoked("live-" + i, expiresAt)) {
+                falsePositives++;
+            }
+        }
+        // 16 bits per id with 3 probes allows about 0.5%; a filter stuck at its initial size would say yes to all
+        assertTrue(falsePositives < revoked / 100, "false positives: " + falsePositives);
+        assertTrue(store.isRevoked(token("revoked-" + (revoked - 1), expiresAt)));
+        assertFalse(store.isRevoked(token("live-0", expiresAt)));
+    }
+
+    @Test
+    void expiredBucketsAreDroppedAndCompactedAway() throws Exception {
+        Path file = dir.resolve("revoked.log");
+        TokenRevocationStore store = store(file);
+        Instant soon = Instant.now().plus(Duration.ofMinutes(30));
+        Instant later = Instant.now().plus(Duration.ofHours(5));
+        store.revoke(token("soon", soon));
+        store.revoke(token("later", later));
+
+        store.sweep(Instant.now().plus(Duration.ofHours(2)));
+
+        assertEquals(1, store.size());
+        assertTrue(store.isRevoked(token("later", later)));
+        assertEquals(List.of(later.getEpochSecond() + " later"), Files.readAllLines(file));
+        store.destroy();
+    }
+
+    @Test
+    void revocationsSurviveRestart() throws Exception {
+        Path file = dir.resolve("revoked.log");
+        Instant expiresAt = Instant.now().plus(Duration.ofHours(1));
+        TokenRevocationStore first = store(file);
+        first.revoke(token("a", expiresAt));
+        first.destroy();
+        // an expired entry and a torn final line are skipped on replay
+        Files.writeString(file, (Instant.now().getEpochSecond() - 10) + " old\n12", StandardOpenOption.APPEND);
+
+        TokenRevocationStore second = store(file);
+
+        assertTrue(second.isRevoked(token("a", expiresAt)));
+        assertEquals(1, second.size());
+        second.revoke(token("b", expiresAt));
+        second.destroy();
+        assertEquals(2, store(file).size());
+    }
+}
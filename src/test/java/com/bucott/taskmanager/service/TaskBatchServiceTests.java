@@ -0,0 +1,128 @@
+package com.bucott.taskmanager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bucott.taskmanager.ApiFixtures;
+import com.bucott.taskmanager.dto.task.TaskBatchResultDTO;
+import com.bucott.taskmanager.dto.task.TaskBatchUpdateDTO;
+import com.bucott.taskmanager.dto.task.TaskChangesDTO;
+import com.bucott.taskmanager.dto.task.TaskStatsDTO;
+import com.bucott.taskmanager.model.TaskStatus;
+import com.bucott.taskmanager.repository.TaskRepository;
+import com.bucott.taskmanager.repository.UserRepository;
+import com.bucott.taskmanager.util.JwtUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest(properties = "rate-limit.enabled=false")
+@AutoConfigureMockMvc
+class TaskBatchServiceTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskLabelIndex taskLabelIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ApiFixtures fixtures;
+
+    @BeforeEach
+    void setUpFixtures() {
+        fixtures = new ApiFixtures(mockMvc, objectMapper);
+    }
+
+    @Test
+    void deleteRacingABatchUpdateKeepsTheCountersRight() throws Exception {
+        String auth = fixtures.registerUser();
+        Long ownerId = jwtUtil.verify(ApiFixtures.token(auth)).userId();
+        long kept = fixtures.createTask(auth, "kept");
+        long deleted = fixtures.createTask(auth, "deleted");
+        assertEquals(2, taskCounterService.stats(ownerId).getOpen());
+
+        // once the batch has read its rows, delete one of them from another request
+        TaskRepository repository = mock(TaskRepository.class, AdditionalAnswers.delegatesTo(taskRepository));
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        AtomicReference<Future<?>> deletion = new AtomicReference<>();
+        doAnswer(invocation -> {
+            Object rows = taskRepository.findDtosForUpdateByOwnerIdAndIdIn(invocation.getArgument(0),
+                    invocation.getArgument(1));
+            deletion.set(other.submit(() -> mockMvc.perform(delete("/api/v1/tasks/" + deleted)
+                            .header("Authorization", auth))
+                    .andExpect(status().isNoContent())));
+            try {
+                deletion.get().get(300, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // the row lock holds the delete back until the batch commits
+            }
+            return rows;
+        }).when(repository).findDtosForUpdateByOwnerIdAndIdIn(any(), any());
+        TaskBatchService batchService = new TaskBatchService(repository, userRepository, taskLabelIndex,
+                eventPublisher, 500, 10_000);
+
+        TaskBatchUpdateDTO request = new TaskBatchUpdateDTO();
+        request.setIds(Arrays.asList(kept, deleted));
+        request.setChanges(TaskChangesDTO.builder().status(TaskStatus.IN_PROGRESS).build());
+        TaskBatchResultDTO result = new TransactionTemplate(transactionManager)
+                .execute(tx -> batchService.update(ownerId, request));
+        deletion.get().get(10, TimeUnit.SECONDS);
+        other.shutdown();
+
+        assertEquals(2, result.getUpdated());
+        JsonNode remaining = objectMapper.readTree(mockMvc.perform(get("/api/v1/tasks").header("Authorization", auth))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("items");
+        assertEquals(1, remaining.size());
+        assertEquals("IN_PROGRESS", remaining.get(0).get("status").asText());
+
+        TaskStatsDTO stats = taskCounterService.stats(ownerId);
+        assertEquals(0, stats.getOpen());
+        assertEquals(1, stats.getInProgress());
+        assertEquals(1, stats.getTotal());
+    }
+}
@@ -0,0 +1,81 @@
+package com.bucott.taskmanager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.bucott.taskmanager.dto.task.TaskDTO;
+import com.bucott.taskmanager.dto.task.TaskStatsDTO;
+import com.bucott.taskmanager.model.TaskStatus;
+import com.bucott.taskmanager.repository.TaskCounterView;
+import com.bucott.taskmanager.repository.TaskRepository;
+import com.bucott.taskmanager.repository.TaskStatsRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TaskCounterServiceTests {
+    private static final Long OWNER = 1L;
+
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TaskCounterService service = new TaskCounterService(taskRepository, mock(TaskStatsRepository.class),
+            mock(PlatformTransactionManager.class), registry, Duration.ofMinutes(1), false);
+
+    private record View(Long getId, Long getVersion, TaskStatus getStatus, Instant getDueDate)
+            implements TaskCounterView {
+    }
+
+    private static TaskDTO task(long id, long version, TaskStatus status) {
+        return TaskDTO.builder().id(id).version(version).status(status).build();
+    }
+
+    // the events are delivered while the count reads its snapshot
+    private void countReturns(List<TaskChangedEvent> deliveredDuringCount, View... snapshot) {
+        when(taskRepository.streamCounterViewsByOwnerId(OWNER)).thenAnswer(invocation -> {
+            deliveredDuringCount.forEach(service::onTaskChanged);
+            return Stream.of(snapshot);
+        });
+    }
+
+    @Test
+    void eventsDeliveredDuringTheInitialCountAreNotCountedTwice() {
+        countReturns(List.of(
+                        // committed before the count, so already in the snapshot
+                        TaskChangedEvent.updated(OWNER, task(2, 2, TaskStatus.OPEN), task(2, 3, TaskStatus.IN_PROGRESS)),
+                        // committed after it
+                        TaskChangedEvent.created(OWNER, task(3, 0, TaskStatus.OPEN))),
+                new View(1L, 0L, TaskStatus.OPEN, null),
+                new View(2L, 3L, TaskStatus.IN_PROGRESS, null));
+
+        TaskStatsDTO stats = service.stats(OWNER);
+
+        assertEquals(2, stats.getOpen());
+        assertEquals(1, stats.getInProgress());
+        assertEquals(3, stats.getTotal());
+    }
+
+    @Test
+    void consistencyCheckDoesNotCorrectChangesItRacedWith() {
+        countReturns(List.of(), new View(1L, 0L, TaskStatus.OPEN, null), new View(2L, 0L, TaskStatus.OPEN, null));
+        assertEquals(2, service.stats(OWNER).getOpen());
+
+        countReturns(List.of(
+                        TaskChangedEvent.updated(OWNER, task(1, 0, TaskStatus.OPEN), task(1, 1, TaskStatus.DONE)),
+                        TaskChangedEvent.deleted(OWNER, task(2, 0, TaskStatus.OPEN))),
+                new View(1L, 1L, TaskStatus.DONE, null));
+        service.checkConsistency();
+
+        TaskStatsDTO stats = service.stats(OWNER);
+        assertEquals(0, stats.getOpen());
+        assertEquals(1, stats.getDone());
+        assertEquals(0, registry.get("task.counters.corrections").counter().count());
+    }
+}
@@ -0,0 +1,81 @@
+package com.bucott.taskmanager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTests {
+
+    private static List<Long> advance(TimingWheel<String> wheel, long tick) {
+        List<Long> expired = new ArrayList<>();
+        wheel.advanceTo(tick, entry -> {
+            assertTrue(entry.deadline <= wheel.currentTick(), "fired early");
+            expired.add(entry.id);
+        });
+        return expired;
+    }
+
+    @Test
+    void entriesExpireOnTheirDeadlineAcrossLevels() {
+        TimingWheel<String> wheel = new TimingWheel<>(1_000);
+        long[] deadlines = {1_001, 1_063, 1_064, 1_000 + 64 * 64, 1_000 + 64 * 64 * 64 + 7, 5_000_000};
+        for (int i = 0; i < deadlines.length; i++) {
+            wheel.schedule(i, deadlines[i], "task");
+        }
+
+        for (long tick = 1_001; tick <= 5_000_000; tick++) {
+            List<Long> expired = advance(wheel, tick);
+            for (long id : expired) {
+                assertEquals(deadlines[(int) id], tick);
+            }
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void randomDeadlinesFireInOrderAndExactlyOnce() {
+        Random random = new Random(42);
+        TimingWheel<String> wheel = new TimingWheel<>(123_456);
+        long[] deadlines = new long[2_000];
+        for (int i = 0; i < deadlines.length; i++) {
+            deadlines[i] = 123_456 + 1 + random.nextInt(300_000);
+            wheel.schedule(i, deadlines[i], "task");
+        }
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advanceTo(123_456 + 300_001, entry -> {
+            assertEquals(entry.deadline, wheel.currentTick());
+            fired.add(entry.id);
+        });
+        assertEquals(deadlines.length, fired.size());
+        assertEquals(deadlines.length, fired.stream().distinct().count());
+    }
+
+    @Test
+    void cancelAndRescheduleReplaceTheEntry() {
+        TimingWheel<String> wheel = new TimingWheel<>(0);
+        wheel.schedule(1, 10, "first");
+        wheel.schedule(2, 10, "second");
+        wheel.schedule(1, 20, "moved");
+        assertTrue(wheel.cancel(2));
+        assertFalse(wheel.cancel(2));
+
+        assertEquals(List.of(), advance(wheel, 19));
+        assertEquals(List.of(1L), advance(wheel, 20));
+        assertFalse(wheel.contains(1));
+    }
+
+    @Test
+    void pastDeadlinesExpireOnTheNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(100);
+        wheel.schedule(1, 50, "overdue");
+
+        assertEquals(List.of(1L), advance(wheel, 100));
+    }
+}
@@ -0,0 +1,95 @@
+package com.bucott.taskmanager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.bucott.taskmanager.service.UserDetailsCache.CachedUser;
+
+class UserDetailsCacheTests {
+
+    private final UserDetailsCache cache = new UserDetailsCache(true, Duration.ofMinutes(5), 100);
+
+    private static CachedUser alice() {
+        return new CachedUser(org.springframework.security.core.userdetails.User.builder()
+                .username("alice")
+                .password("hash")
+                .authorities("ROLE_USER")
+                .build(), "alice@example.com", 0);
+    }
+
+    @Test
+    void usernameAndEmailResolveToSameEntry() {
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, CachedUser> loader = key -> {
+            loads.incrementAndGet();
+            return alice();
+        };
+
+        CachedUser byUsername = cache.getByUsername("alice", loader);
+        CachedUser byEmail = cache.getByEmail("alice@example.com", loader);
+        CachedUser byIdentifier = cache.getByUsernameOrEmail("alice@example.com", loader);
+
+        assertSame(byUsername, byEmail);
+        assertSame(byUsername, byIdentifier);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, CachedUser> loader = key -> {
+            loads.incrementAndGet();
+            return alice();
+        };
+
+        cache.getByEmail("alice@example.com", loader);
+        cache.invalidate("alice", "alice@example.com");
+        cache.getByUsername("alice", loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void concurrentMissesAreCoalesced() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, CachedUser> slowLoader = key -> {
+            loads.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return alice();
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CachedUser>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.getByUsername("alice", slowLoader)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<CachedUser> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+    }
+}
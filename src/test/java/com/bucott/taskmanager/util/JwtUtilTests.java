@@ -0,0 +1,137 @@
+package com.bucott.taskmanager.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.jsonwebtoken.JwtException;
+
+class JwtUtilTests {
+    private static final String SECRET = "unit-test-secret-key-that-is-long-enough-for-hs256";
+
+    private VerifiedTokenCache cache;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VerifiedTokenCache(true, 100);
+        jwtUtil = new JwtUtil(SECRET, cache);
+    }
+
+    @Test
+    void verifyReturnsParsedClaims() {
+        String token = jwtUtil.generateToken("alice", "alice@example.com");
+
+        ParsedToken parsed = jwtUtil.verify(token);
+
+        assertEquals("alice", parsed.subject());
+        assertEquals("alice@example.com", parsed.email());
+    }
+
+    @Test
+    void embeddedAuthoritiesRoundTrip() {
+        String token = jwtUtil.generateToken(7L, "alice", "alice@example.com", List.of("ROLE_USER"), 3);
+
+        ParsedToken parsed = jwtUtil.verify(token);
+
+        assertTrue(parsed.hasEmbeddedAuthorities());
+        assertEquals(List.of("ROLE_USER"), parsed.authorities());
+        assertEquals(3L, parsed.securityVersion());
+        assertEquals(7L, parsed.userId());
+        assertTrue(parsed.isFresh(Instant.now(), Duration.ofMinutes(5)));
+        assertFalse(parsed.isFresh(Instant.now().plus(Duration.ofMinutes(10)), Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void legacyTokenHasNoEmbeddedAuthorities() {
+        String token = jwtUtil.generateToken("alice", "alice@example.com");
+
+        assertFalse(jwtUtil.verify(token).hasEmbeddedAuthorities());
+    }
+
+    @Test
+    void repeatedVerificationIsServedFromCache() {
+        String token = jwtUtil.generateToken("alice", "alice@example.com");
+
+        ParsedToken first = jwtUtil.verify(token);
+        ParsedToken second = jwtUtil.verify(token);
+
+        assertSame(first, second);
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        String token = jwtUtil.generateToken("alice", "alice@example.com");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() {
+        JwtUtil other = new JwtUtil("another-unit-test-secret-key-long-enough-for-hs256", new VerifiedTokenCache(true, 100));
+        String token = other.generateToken("alice", "alice@example.com");
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(token));
+    }
+
+    @Test
+    void es256TokensNameTheirKeyAndSurviveRotation(@TempDir Path keys, @TempDir Path spare) throws Exception {
+        JwtKeyRing ring = JwtKeyRing.ecDirectory(keys, Duration.ZERO);
+        JwtUtil es256 = new JwtUtil(ring, new VerifiedTokenCache(false, 0), Duration.ofMinutes(15));
+        String before = es256.generateToken("alice", "alice@example.com");
+        String oldKid = ring.signingKey().kid();
+        assertTrue(header(before).contains("\"kid\":\"" + oldKid + "\""));
+        assertTrue(header(before).contains("\"alg\":\"ES256\""));
+
+        // rotate: a newer pair takes over signing, the old public key keeps verifying
+        JwtKeyRing.ecDirectory(spare, Duration.ZERO);
+        try (var files = Files.list(spare)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                Files.copy(file, keys.resolve("zz-next" + name.substring(name.lastIndexOf('.'))));
+            }
+        }
+        ring.reload();
+        String after = es256.generateToken("alice", "alice@example.com");
+        assertTrue(header(after).contains("\"kid\":\"zz-next\""));
+        assertEquals("alice", es256.verify(before).subject());
+        assertEquals("alice", es256.verify(after).subject());
+        assertEquals(2, ((List<?>) ring.jwks().get("keys")).size());
+
+        // retiring the old key ends its tokens
+        Files.delete(keys.resolve(oldKid + ".key"));
+        Files.delete(keys.resolve(oldKid + ".pub"));
+        ring.reload();
+        assertThrows(JwtException.class, () -> es256.verify(before));
+        assertEquals("alice", es256.verify(after).subject());
+    }
+
+    @Test
+    void es256RejectsHs256Tokens(@TempDir Path keys) {
+        JwtUtil es256 = new JwtUtil(JwtKeyRing.ecDirectory(keys, Duration.ZERO), new VerifiedTokenCache(false, 0),
+                Duration.ofMinutes(15));
+
+        assertThrows(JwtException.class, () -> es256.verify(jwtUtil.generateToken("alice", "alice@example.com")));
+    }
+
+    private static String header(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+    }
+}